@@ -10,9 +10,8 @@ group = "org.geysermc.globallinkserver"
 dependencies {
     paperweight.paperDevBundle("1.21.4-R0.1-SNAPSHOT")
 
+    implementation(project(":core"))
     compileOnly(libs.floodgate.api)
-    implementation(libs.mariadb.client)
-    implementation(libs.bundles.fastutil)
 
     compileOnly(libs.checker.qual)
 }
@@ -40,16 +39,18 @@ indra {
     }
 }
 
-repositories {
-    mavenLocal()
+allprojects {
+    repositories {
+        mavenLocal()
 
-    maven("https://repo.opencollab.dev/main")
-    maven("https://repo.papermc.io/repository/maven-public/")
+        maven("https://repo.opencollab.dev/main")
+        maven("https://repo.papermc.io/repository/maven-public/")
 
-    mavenCentral()
+        mavenCentral()
 
-    maven("https://jitpack.io") {
-        content { includeGroupByRegex("com\\.github\\..*") }
+        maven("https://jitpack.io") {
+            content { includeGroupByRegex("com\\.github\\..*") }
+        }
     }
 }
 
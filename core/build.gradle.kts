@@ -0,0 +1,90 @@
+plugins {
+    `java-library`
+    // applied with their versions by the root project
+    id("net.kyori.indra")
+    id("net.kyori.indra.licenser.spotless")
+    alias(libs.plugins.jmh)
+}
+
+group = "org.geysermc.globallinkserver"
+
+indra {
+    mitLicense()
+
+    javaVersions {
+        target(21)
+    }
+
+    spotless {
+        java {
+            formatAnnotations()
+        }
+        ratchetFrom("origin/master")
+    }
+}
+
+// the header is shared with the root project
+indraSpotlessLicenser {
+    licenseHeaderFile(rootProject.file("license_header.txt"))
+}
+
+// drives the link flows with synthetic players against an embedded database, see LinkLoadTest
+val loadtest: SourceSet by sourceSets.creating {
+    val main = sourceSets.main.get()
+    compileClasspath += main.output + main.compileClasspath
+    runtimeClasspath += main.output + main.compileClasspath + main.runtimeClasspath
+}
+
+dependencies {
+    // provided by every platform the link server runs on
+    compileOnlyApi(libs.floodgate.api)
+    compileOnlyApi(libs.adventure.api)
+    compileOnlyApi(libs.jspecify)
+
+    implementation(libs.mariadb.client)
+    implementation(libs.bundles.fastutil)
+    implementation(libs.caffeine)
+
+    testImplementation(platform(libs.junit.bom))
+    testImplementation(libs.junit.jupiter)
+    testRuntimeOnly(libs.junit.platform.launcher)
+
+    "loadtestImplementation"(libs.mariadb4j)
+    "loadtestImplementation"(libs.adventure.text.serializer.plain)
+
+    // the benchmarks use the stand-ins of the tests and the load test instead of a database and a server
+    jmhImplementation(sourceSets.test.get().output)
+    jmhImplementation(loadtest.output)
+    jmhImplementation(libs.adventure.text.serializer.plain)
+}
+
+// the tests run outside of a server, so the platform api has to be on their own classpath
+configurations.testImplementation {
+    extendsFrom(configurations.compileOnly.get())
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Runs the link flows with synthetic players against an embedded MariaDB and reports the throughput."
+    classpath = loadtest.runtimeClasspath
+    mainClass = "org.geysermc.globallinkserver.loadtest.LinkLoadTest"
+    args(
+        providers.gradleProperty("pairs").getOrElse("1000"),
+        providers.gradleProperty("concurrency").getOrElse("64"))
+}
+
+// the benchmarks run outside of a server, so the platform api has to be on their own classpath
+configurations.jmhImplementation {
+    extendsFrom(configurations.compileOnly.get())
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    // run with ./gradlew :core:jmh, the results can be compared between runs with any JMH visualizer
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * What isolating a joining player from the others costs, with more and more players online. The join handler used to
+ * hide every pair of players, it now clears the visibleByDefault flag of the joining player.
+ * <p>
+ * The players are stand-ins that keep the visibility state of Paper's CraftPlayer: the players a player sees
+ * differently than their visibleByDefault flag says, and the packets that are sent when that changes. Like
+ * PlayerList#placeNewPlayer, a join is announced to the online players that can see the joining player and the other
+ * way around. That check is a loop over the online players on the server either way, what should stay flat is the work
+ * the isolation adds on top of it. Both benchmarks return the packets of a join, which stay at zero when clearing the
+ * flag and grow by four per online player when hiding every pair.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JoinBenchmark {
+    @Param({"10", "100", "500", "1000", "2000"})
+    private int onlinePlayers;
+
+    private final List<TrackedPlayer> pairwiseHidden = new ArrayList<>();
+    private final List<TrackedPlayer> notVisibleByDefault = new ArrayList<>();
+    private TrackedPlayer joiningPlayer;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < onlinePlayers; i++) {
+            var hidden = new TrackedPlayer(new UUID(i + 1, i));
+            for (var other : pairwiseHidden) {
+                hidden.hide(other);
+                other.hide(hidden);
+            }
+            pairwiseHidden.add(hidden);
+
+            var invisible = new TrackedPlayer(new UUID(i + 1, i));
+            invisible.visibleByDefault = false;
+            notVisibleByDefault.add(invisible);
+        }
+        joiningPlayer = new TrackedPlayer(new UUID(onlinePlayers + 1, onlinePlayers));
+    }
+
+    /**
+     * What the join handler used to do.
+     */
+    @Benchmark
+    public int hideEveryPair() {
+        joiningPlayer.visibleByDefault = true;
+        for (var other : pairwiseHidden) {
+            joiningPlayer.hide(other);
+            other.hide(joiningPlayer);
+        }
+        return joinAndLeave(pairwiseHidden);
+    }
+
+    /**
+     * What the join handler does now.
+     */
+    @Benchmark
+    public int clearVisibleByDefault() {
+        joiningPlayer.visibleByDefault = false;
+        return joinAndLeave(notVisibleByDefault);
+    }
+
+    private int joinAndLeave(List<TrackedPlayer> online) {
+        // the join is announced, counting the packets the isolation caused before that as well
+        for (var other : online) {
+            if (other.canSee(joiningPlayer)) {
+                other.packetsSent++;
+            }
+            if (joiningPlayer.canSee(other)) {
+                joiningPlayer.packetsSent++;
+            }
+        }
+
+        int packets = joiningPlayer.packetsSent;
+        for (var other : online) {
+            packets += other.packetsSent;
+            other.packetsSent = 0;
+            // the server forgets the player that left
+            other.invertedVisibility.remove(joiningPlayer.uuid);
+        }
+        joiningPlayer.packetsSent = 0;
+        joiningPlayer.invertedVisibility.clear();
+        return packets;
+    }
+
+    private static final class TrackedPlayer {
+        private final UUID uuid;
+        // the players this player sees differently than their visibleByDefault flag says
+        private final Set<UUID> invertedVisibility = new HashSet<>();
+        private boolean visibleByDefault = true;
+        private int packetsSent;
+
+        private TrackedPlayer(UUID uuid) {
+            this.uuid = uuid;
+        }
+
+        boolean canSee(TrackedPlayer other) {
+            return other.visibleByDefault != invertedVisibility.contains(other.uuid);
+        }
+
+        void hide(TrackedPlayer other) {
+            boolean changed = other.visibleByDefault
+                    ? invertedVisibility.add(other.uuid)
+                    : invertedVisibility.remove(other.uuid);
+            if (changed) {
+                // removing the player from the tab list and the entity tracker
+                packetsSent += 2;
+            }
+        }
+    }
+}
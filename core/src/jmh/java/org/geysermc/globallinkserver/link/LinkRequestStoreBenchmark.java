@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.link;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Creating, redeeming and expiring link requests while a part of the code space is already in use.
+ * Every benchmark gives back the code it took, so the occupancy stays the same during a run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkRequestStoreBenchmark {
+    private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(15);
+    private static final UUID REQUESTER = UUID.randomUUID();
+
+    @Param({"0", "50", "90", "99"})
+    private int occupancyPercent;
+
+    private LinkRequestStore store;
+    private int unusedCode;
+
+    @Setup
+    public void setup() {
+        var codeSpace = LinkCodeSpace.single(LinkManager.LINK_CODE_SPACE);
+        store = new InMemoryLinkRequestStore(codeSpace);
+
+        int occupied = codeSpace.size() * occupancyPercent / 100;
+        List<LinkRequest> requests = new ArrayList<>(occupied);
+        for (int i = 0; i < occupied; i++) {
+            requests.add(store.create(this::request).join());
+        }
+
+        // free a code, so there's always a code to look up that isn't in use
+        var free = store.create(this::request).join();
+        unusedCode = free.code();
+        store.redeem(unusedCode).join();
+    }
+
+    @Benchmark
+    public LinkRequest createAndRedeem() {
+        var request = store.create(this::request).join();
+        return store.redeem(request.code()).join();
+    }
+
+    @Benchmark
+    public boolean createAndExpire() {
+        // the part of LinkManager#cleanupLinkRequests that touches the store
+        var request = store.create(this::request).join();
+        return store.remove(request).join();
+    }
+
+    @Benchmark
+    public LinkRequest redeemUnusedCode() {
+        return store.redeem(unusedCode).join();
+    }
+
+    private LinkRequest request(int code) {
+        return new LinkRequest(code, System.currentTimeMillis() + TTL_MILLIS, REQUESTER, "Requester");
+    }
+}
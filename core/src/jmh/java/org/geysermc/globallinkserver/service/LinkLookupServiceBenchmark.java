@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.geysermc.globallinkserver.link.FullLink;
+import org.geysermc.globallinkserver.loadtest.FakeFloodgateApi;
+import org.geysermc.globallinkserver.loadtest.FakePlayer;
+import org.geysermc.globallinkserver.manager.PlayerManager;
+import org.geysermc.globallinkserver.manager.TestDatabases;
+import org.geysermc.globallinkserver.metrics.MetricsRegistry;
+import org.geysermc.globallinkserver.platform.PlatformPlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading and writing the link caches of the lookup service. Every player has been looked up already, so none of
+ * these reach the database stand-in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkLookupServiceBenchmark {
+    @Param({"100", "2000", "10000"})
+    private int playerCount;
+
+    private final Map<UUID, PlatformPlayer> players = new ConcurrentHashMap<>();
+    private LinkLookupService linkLookupService;
+    private FakePlayer[] onlinePlayers;
+    private int nextPlayer;
+
+    @Setup
+    public void setup() throws UnknownHostException {
+        var config = TestDatabases.config(3, 10_000, TestDatabases.DEFAULT_CIRCUIT_BREAKER);
+        var database = TestDatabases.database(config, TestDatabases.withoutLinks());
+        var playerManager = new PlayerManager(FakeFloodgateApi.create(players), players::get);
+        var gamertagService = new GamertagService(database, playerManager::fetchGamertagFor, config.gamertagCache());
+        linkLookupService = new LinkLookupService(
+                playerManager, database, gamertagService, config.linkCache(), new MetricsRegistry());
+
+        onlinePlayers = new FakePlayer[playerCount];
+        List<CompletableFuture<?>> lookups = new ArrayList<>();
+        for (int i = 0; i < playerCount; i++) {
+            var address = new byte[] {10, (byte) (i >> 16), (byte) (i >> 8), (byte) i};
+            var player = new FakePlayer(new UUID(i + 1, i), "Player" + i, InetAddress.getByAddress(address));
+            onlinePlayers[i] = player;
+            players.put(player.uniqueId(), player);
+            lookups.add(linkLookupService.lookup(player.uniqueId(), player.name()));
+        }
+        CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * What the link commands and the action bar do for an online player.
+     */
+    @Benchmark
+    public FullLink cachedLookup() {
+        return linkLookupService.cachedLookup(nextPlayer().uniqueId());
+    }
+
+    /**
+     * A player leaves and joins again: the result moves to the recently left players and back.
+     */
+    @Benchmark
+    public CompletableFuture<FullLink> releaseAndLookup() {
+        var player = nextPlayer();
+        linkLookupService.release(player.uniqueId());
+        return linkLookupService.lookup(player.uniqueId(), player.name());
+    }
+
+    /**
+     * Logging in players are prefetched from the login threads, which only read the caches when the link is known.
+     */
+    @Benchmark
+    @Threads(4)
+    public void prefetchKnownPlayerContended() {
+        var player = onlinePlayers[ThreadLocalRandom.current().nextInt(playerCount)];
+        linkLookupService.prefetch(player.uniqueId(), player.name());
+    }
+
+    private FakePlayer nextPlayer() {
+        var player = onlinePlayers[nextPlayer];
+        nextPlayer = nextPlayer + 1 == playerCount ? 0 : nextPlayer + 1;
+        return player;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.util;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The idle tracker is ticked and touched on the main thread only, so these run single threaded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdleTrackerBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int keyCount;
+
+    private UUID[] keys;
+    private IdleTracker<UUID> activeTracker;
+    private int nextKey;
+
+    @Setup
+    public void setup() {
+        keys = new UUID[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = UUID.randomUUID();
+        }
+
+        // nobody is idle yet, which is what almost every tick looks like
+        activeTracker = new IdleTracker<>(TimeUnit.MINUTES.toMillis(15), 15_000, key -> {});
+        for (UUID key : keys) {
+            activeTracker.add(key);
+        }
+    }
+
+    @Benchmark
+    public void tickNothingDue() {
+        activeTracker.tick();
+    }
+
+    /**
+     * Every key joins and is idle right away, so a single tick has to remove all of them.
+     */
+    @Benchmark
+    public int addAndExpireAll() {
+        var tracker = new IdleTracker<UUID>(0, 15_000, key -> {});
+        for (UUID key : keys) {
+            tracker.add(key);
+        }
+        tracker.tick();
+        return tracker.size();
+    }
+
+    /**
+     * What {@code MoveInactivityHandler} does for a player that moved to another block.
+     */
+    @Benchmark
+    public void touch() {
+        activeTracker.touch(keys[nextKey]);
+        nextKey = nextKey + 1 == keyCount ? 0 : nextKey + 1;
+    }
+}
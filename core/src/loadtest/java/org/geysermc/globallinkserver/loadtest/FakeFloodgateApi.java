@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.loadtest;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.geysermc.floodgate.api.FloodgateApi;
+import org.geysermc.floodgate.api.player.FloodgatePlayer;
+import org.geysermc.globallinkserver.platform.PlatformPlayer;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Floodgate as it behaves for the load test: every uuid with zero most significant bits is a Bedrock player, whose
+ * xuid is the least significant bits. Gamertags are resolved right away instead of calling the global api.
+ */
+@NullMarked
+public final class FakeFloodgateApi {
+    static final String PREFIX = ".";
+
+    private FakeFloodgateApi() {}
+
+    public static FloodgateApi create(Map<UUID, PlatformPlayer> onlinePlayers) {
+        var interfaces = new Class<?>[] {FloodgateApi.class};
+        return (FloodgateApi) Proxy.newProxyInstance(
+                FloodgateApi.class.getClassLoader(), interfaces, (proxy, method, args) -> {
+                    return switch (method.getName()) {
+                        case "isFloodgateId" -> isBedrockId((UUID) args[0]);
+                        case "isFloodgatePlayer" -> isBedrockId((UUID) args[0])
+                                && onlinePlayers.containsKey((UUID) args[0]);
+                        case "getPlayer" -> {
+                            var player = onlinePlayers.get((UUID) args[0]);
+                            yield player != null && isBedrockId(player.uniqueId()) ? bedrockPlayer(player) : null;
+                        }
+                        case "getPlayerPrefix" -> PREFIX;
+                        case "getGamertagFor" -> CompletableFuture.completedFuture(gamertagOf((Long) args[0]));
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        case "toString" -> "FakeFloodgateApi";
+                        default -> throw new UnsupportedOperationException(method.toString());
+                    };
+                });
+    }
+
+    static String gamertagOf(long xuid) {
+        return "Gamer" + xuid;
+    }
+
+    private static boolean isBedrockId(UUID uuid) {
+        return uuid.getMostSignificantBits() == 0;
+    }
+
+    private static FloodgatePlayer bedrockPlayer(PlatformPlayer player) {
+        long xuid = player.uniqueId().getLeastSignificantBits();
+        var interfaces = new Class<?>[] {FloodgatePlayer.class};
+        return (FloodgatePlayer) Proxy.newProxyInstance(
+                FloodgatePlayer.class.getClassLoader(), interfaces, (proxy, method, args) -> {
+                    return switch (method.getName()) {
+                        case "getUsername" -> gamertagOf(xuid);
+                        case "getJavaUsername" -> player.name();
+                        case "getXuid" -> Long.toString(xuid);
+                        case "getJavaUniqueId", "getCorrectUniqueId" -> player.uniqueId();
+                        case "hashCode" -> Long.hashCode(xuid);
+                        case "equals" -> proxy == args[0];
+                        case "toString" -> player.name();
+                        default -> throw new UnsupportedOperationException(method.toString());
+                    };
+                });
+    }
+}
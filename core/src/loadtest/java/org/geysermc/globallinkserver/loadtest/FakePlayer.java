@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.loadtest;
+
+import java.net.InetAddress;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.geysermc.globallinkserver.platform.PlatformPlayer;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A player without a connection. The messages and kicks the player receives can be awaited one at a time.
+ */
+@NullMarked
+public final class FakePlayer implements PlatformPlayer {
+    private final UUID uuid;
+    private final String name;
+    private final InetAddress address;
+    private final AtomicReference<@Nullable CompletableFuture<Event>> nextEvent = new AtomicReference<>();
+
+    public FakePlayer(UUID uuid, String name, InetAddress address) {
+        this.uuid = uuid;
+        this.name = name;
+        this.address = address;
+    }
+
+    @Override
+    public UUID uniqueId() {
+        return uuid;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public InetAddress address() {
+        return address;
+    }
+
+    @Override
+    public void sendMessage(Component message) {
+        receive(false, message);
+    }
+
+    @Override
+    public void kick(Component reason) {
+        receive(true, reason);
+    }
+
+    /**
+     * Returns a future that completes with the next message or kick the player receives.
+     * Has to be called before the action that causes it.
+     */
+    CompletableFuture<Event> nextEvent() {
+        var future = new CompletableFuture<Event>();
+        nextEvent.set(future);
+        return future;
+    }
+
+    private void receive(boolean kick, Component message) {
+        var future = nextEvent.getAndSet(null);
+        if (future != null) {
+            future.complete(new Event(kick, message));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    record Event(boolean kick, Component message) {
+        String plainText() {
+            return PlainTextComponentSerializer.plainText().serialize(message);
+        }
+    }
+}
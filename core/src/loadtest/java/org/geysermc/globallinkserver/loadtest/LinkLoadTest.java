@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.loadtest;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import net.kyori.adventure.text.Component;
+import org.geysermc.globallinkserver.Components;
+import org.geysermc.globallinkserver.GlobalLinkCore;
+import org.geysermc.globallinkserver.config.Config;
+import org.geysermc.globallinkserver.handler.CommandHandler;
+import org.geysermc.globallinkserver.link.LinkCodeSpace;
+import org.geysermc.globallinkserver.manager.JavaIdFormat;
+import org.geysermc.globallinkserver.platform.PlatformPlayer;
+import org.geysermc.globallinkserver.service.LinkLookupService;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Runs the link flows of the command handler with synthetic players against an embedded MariaDB, without a server.
+ * Every pair of a Java and a Bedrock player joins, links with /link and /link &lt;code&gt;, rejoins, unlinks and
+ * quits. Afterwards the throughput, the latency of every stage and the database round trips per link are reported.
+ * <p>
+ * Usage: {@code ./gradlew :core:loadTest -Ppairs=1000 -Pconcurrency=64}
+ */
+@NullMarked
+public final class LinkLoadTest {
+    private static final Pattern LINK_CODE = Pattern.compile("/link (\\d{4})");
+    private static final long STAGE_TIMEOUT_SECONDS = 30;
+    private static final String DATABASE = "global_link";
+
+    private final Map<UUID, PlatformPlayer> onlinePlayers = new ConcurrentHashMap<>();
+    // every command and event of a real server is handled on the main thread
+    private final ExecutorService mainThread =
+            Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "Server thread"));
+
+    private final Stage join = new Stage("join");
+    private final Stage startLink = new Stage("start-link");
+    private final Stage link = new Stage("link");
+    private final Stage unlink = new Stage("unlink");
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private LinkLookupService linkLookupService;
+    private CommandHandler commandHandler;
+
+    public static void main(String[] args) throws Exception {
+        int pairs = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        var dbConfig = DBConfigurationBuilder.newBuilder();
+        dbConfig.setPort(0);
+        var db = DB.newEmbeddedDB(dbConfig.build());
+        db.start();
+        db.createDB(DATABASE);
+
+        int exitCode;
+        try {
+            exitCode = new LinkLoadTest().run(db.getConfiguration().getPort(), pairs, concurrency);
+        } finally {
+            db.stop();
+        }
+        // the connection pool has no way to be shut down
+        System.exit(exitCode);
+    }
+
+    private int run(int port, int pairs, int concurrency) throws Exception {
+        var config = new Config(
+                new Config.Database(
+                        "127.0.0.1:" + port, "root", "", DATABASE, 8, 10_000, JavaIdFormat.DUAL, false, List.of(), 10),
+                new Config.CircuitBreaker(20, 10, 0.5, 0.5, 2000, 10, 3),
+                new Config.LinkRequests(Config.LinkRequests.StoreType.MEMORY, 0, 1, LinkCodeSpace.Layout.INTERLEAVED),
+                new Config.LinkCache(600, 10_000),
+                new Config.GamertagCache(10_000, 86_400),
+                new Config.RateLimits(
+                        new Config.RateLimits.RateLimit(true, 3, 20),
+                        new Config.RateLimits.RateLimit(true, 5, 5),
+                        new Config.RateLimits.RateLimit(true, 10, 2)),
+                new Config.Metrics(false, "127.0.0.1", 0),
+                new Config.LeanMode(false, 2, 2));
+
+        var core = new GlobalLinkCore(
+                config,
+                Logger.getLogger("LinkLoadTest"),
+                FakeFloodgateApi.create(onlinePlayers),
+                onlinePlayers::get,
+                mainThread);
+        var database = core.databaseManager();
+        linkLookupService = core.linkLookupService();
+        commandHandler = core.commandHandler();
+
+        long statementsBefore = executedStatements(port);
+        long borrowsBefore = database.poolMetrics().borrows();
+        long startNanos = System.nanoTime();
+
+        var permits = new Semaphore(concurrency);
+        try (var flows = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < pairs; i++) {
+                permits.acquire();
+                int pair = i;
+                flows.execute(() -> {
+                    try {
+                        runPair(pair);
+                    } catch (Exception exception) {
+                        if (failures.getAndIncrement() < 10) {
+                            System.err.println("Pair " + pair + " failed: " + exception);
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        // the statement counter is read with a statement of its own
+        long statements = executedStatements(port) - statementsBefore - 1;
+        long borrows = database.poolMetrics().borrows() - borrowsBefore;
+        int linked = link.count();
+
+        System.out.printf(
+                "Linked %d of %d pairs in %.1f s (%.1f links/s), %d failed%n",
+                linked, pairs, elapsedSeconds, linked / elapsedSeconds, failures.get());
+        System.out.printf("%-12s %8s %10s %10s %10s%n", "stage", "count", "p50 ms", "p99 ms", "max ms");
+        for (Stage stage : List.of(join, startLink, link, unlink)) {
+            stage.print();
+        }
+        System.out.printf(
+                "Database round trips per link: %.1f (every stage of the pair, joins and unlink included)%n",
+                (double) statements / Math.max(linked, 1));
+        System.out.printf("Connections borrowed per link: %.1f%n", (double) borrows / Math.max(linked, 1));
+
+        mainThread.shutdown();
+        return failures.get() == 0 ? 0 : 1;
+    }
+
+    private void runPair(int pair) throws Exception {
+        var java = new FakePlayer(UUID.randomUUID(), "Java" + pair, address(pair * 2));
+        long xuid = 2_535_000_000_000_000L + pair;
+        var bedrock = new FakePlayer(
+                new UUID(0, xuid), FakeFloodgateApi.PREFIX + FakeFloodgateApi.gamertagOf(xuid), address(pair * 2 + 1));
+
+        join(java);
+        join(bedrock);
+
+        long startNanos = System.nanoTime();
+        var started = java.nextEvent();
+        mainThread.execute(() -> commandHandler.startLink(java));
+        var linkStarted = await(started);
+        var matcher = LINK_CODE.matcher(linkStarted.plainText());
+        if (linkStarted.kick() || !matcher.find()) {
+            throw new IllegalStateException("Expected a link code, got " + linkStarted.plainText());
+        }
+        startLink.record(startNanos);
+
+        startNanos = System.nanoTime();
+        var javaLinked = java.nextEvent();
+        var bedrockLinked = bedrock.nextEvent();
+        int code = Integer.parseInt(matcher.group(1));
+        mainThread.execute(() -> commandHandler.linkWithCode(bedrock, code));
+        expectKick(await(bedrockLinked), Components.LINK_CREATE_SUCCESS);
+        expectKick(await(javaLinked), Components.LINK_CREATE_SUCCESS);
+        link.record(startNanos);
+        quit(java);
+        quit(bedrock);
+
+        join(java);
+        if (!linkLookupService.isLinkedCached(java.uniqueId())) {
+            throw new IllegalStateException("The link wasn't found after rejoining");
+        }
+
+        startNanos = System.nanoTime();
+        var unlinked = java.nextEvent();
+        mainThread.execute(() -> commandHandler.unlink(java));
+        expectKick(await(unlinked), Components.UNLINK_SUCCESS);
+        unlink.record(startNanos);
+        quit(java);
+    }
+
+    /**
+     * Does what the join handler does for a joining player and waits until the link of the player is known.
+     */
+    private void join(FakePlayer player) throws Exception {
+        long startNanos = System.nanoTime();
+        // the pre-login event is called on a login thread
+        linkLookupService.prefetch(player.uniqueId(), player.name());
+        var lookup = CompletableFuture.supplyAsync(
+                        () -> {
+                            onlinePlayers.put(player.uniqueId(), player);
+                            return linkLookupService.lookup(player.uniqueId(), player.name());
+                        },
+                        mainThread)
+                .thenCompose(future -> future);
+        await(lookup);
+        join.record(startNanos);
+    }
+
+    private void quit(FakePlayer player) throws Exception {
+        await(CompletableFuture.runAsync(
+                () -> {
+                    onlinePlayers.remove(player.uniqueId());
+                    linkLookupService.release(player.uniqueId());
+                },
+                mainThread));
+    }
+
+    private static void expectKick(FakePlayer.Event event, Component expected) {
+        if (!event.kick() || !event.message().equals(expected)) {
+            throw new IllegalStateException("Expected to be kicked, got " + event.plainText());
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        return future.get(STAGE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private static InetAddress address(int index) throws UnknownHostException {
+        // every player gets its own address, so the per address rate limit doesn't kick in
+        byte[] address = {10, (byte) (index >>> 16), (byte) (index >>> 8), (byte) index};
+        return InetAddress.getByAddress(address);
+    }
+
+    private static long executedStatements(int port) throws SQLException {
+        var url = "jdbc:mariadb://127.0.0.1:%s/%s".formatted(port, DATABASE);
+        try (Connection connection = DriverManager.getConnection(url, "root", "");
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SHOW GLOBAL STATUS LIKE 'Questions'")) {
+            resultSet.next();
+            return resultSet.getLong("Value");
+        }
+    }
+
+    private static final class Stage {
+        private final String name;
+        private long[] latencies = new long[1024];
+        private int count;
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        synchronized void record(long startNanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - startNanos;
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized void print() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            System.out.printf(
+                    "%-12s %8d %10.2f %10.2f %10.2f%n",
+                    name, count, percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 1));
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
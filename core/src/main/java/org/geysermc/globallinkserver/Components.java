@@ -39,11 +39,17 @@ public final class Components {
     public static final Component LINK_CODE_INVALID_RANGE = Component.text("Invalid link code!", NamedTextColor.RED);
     public static final Component LINK_REQUEST_REPLACED = Component.text(
             "You already had an active link request, so your old request has been invalidated.", NamedTextColor.AQUA);
+    public static final Component LINK_CODES_EXHAUSTED = Component.text(
+            "There are too many active link requests right now. Try it again in a few minutes!", NamedTextColor.RED);
+    public static final Component LINK_RATE_LIMITED =
+            Component.text("You're doing that too often. Try it again in a few seconds!", NamedTextColor.RED);
     public static final Component LINK_REQUEST_NOT_FOUND =
             Component.text("Could not find the provided link. Has it expired?", NamedTextColor.RED);
     public static final Component LINK_REQUEST_SAME_PLATFORM = Component.text(
                     "You can only link a Java account to a Bedrock account. ", NamedTextColor.RED)
             .append(Component.text("Try to start the linking process again!"));
+    public static final Component LINK_SERVICE_UNAVAILABLE = Component.text(
+            "Linking is temporarily unavailable. Try it again in a few minutes!", NamedTextColor.RED);
     public static final Component LINK_CREATE_ERROR = Component.text(
             "An unknown error occurred while linking your account. Try it again later!", NamedTextColor.RED);
     public static final Component LINK_CREATE_SUCCESS =
@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import org.geysermc.floodgate.api.FloodgateApi;
+import org.geysermc.globallinkserver.config.Config;
+import org.geysermc.globallinkserver.handler.CommandHandler;
+import org.geysermc.globallinkserver.link.FullLink;
+import org.geysermc.globallinkserver.link.InMemoryLinkRequestStore;
+import org.geysermc.globallinkserver.link.LinkCodeSpace;
+import org.geysermc.globallinkserver.link.LinkManager;
+import org.geysermc.globallinkserver.link.LinkRequestStore;
+import org.geysermc.globallinkserver.link.MariaDbLinkRequestStore;
+import org.geysermc.globallinkserver.manager.CircuitBreaker;
+import org.geysermc.globallinkserver.manager.DatabaseManager;
+import org.geysermc.globallinkserver.manager.PlayerManager;
+import org.geysermc.globallinkserver.manager.PoolMetrics;
+import org.geysermc.globallinkserver.metrics.MetricsRegistry;
+import org.geysermc.globallinkserver.metrics.MetricsServer;
+import org.geysermc.globallinkserver.platform.PlatformPlayer;
+import org.geysermc.globallinkserver.platform.PlatformScheduler;
+import org.geysermc.globallinkserver.service.GamertagService;
+import org.geysermc.globallinkserver.service.LinkInfoService;
+import org.geysermc.globallinkserver.service.LinkLookupService;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Everything needed to link accounts, independent of the platform it runs on.
+ * The platform forwards the commands and the joining and leaving players, and provides the scheduler for the periodic
+ * tasks.
+ */
+@NullMarked
+public final class GlobalLinkCore {
+    private static final double CODE_SPACE_USAGE_WARNING = 0.8;
+
+    private final Logger logger;
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final PlayerManager playerManager;
+    private final DatabaseManager databaseManager;
+    private final LinkLookupService linkLookupService;
+    private final LinkManager linkManager;
+    private final LinkInfoService linkInfoService;
+    private final CommandHandler commandHandler;
+    private final Executor mainThread;
+    private final boolean sharedLinkRequests;
+    private @Nullable MetricsServer metricsServer;
+
+    // only used on the main thread
+    private final Map<UUID, JoinedPlayer> joinedPlayers = new HashMap<>();
+    // the players whose lookup failed or was invalidated, invalidations can come from any thread
+    private final Set<UUID> pendingLookups = ConcurrentHashMap.newKeySet();
+
+    // written by the periodic tasks and read when the metrics are scraped
+    private volatile long lastRateLimitedCount;
+    private volatile double[] lastCodeSpaceUsage;
+    private volatile PoolMetrics lastPoolMetrics;
+
+    /**
+     * @param onlinePlayers returns the online player with the given uuid
+     * @param mainThread the thread the commands are handled on, and where players are kicked
+     */
+    public GlobalLinkCore(
+            Config config,
+            Logger logger,
+            FloodgateApi floodgateApi,
+            Function<UUID, @Nullable PlatformPlayer> onlinePlayers,
+            Executor mainThread) {
+        this.logger = logger;
+        this.mainThread = mainThread;
+
+        playerManager = new PlayerManager(floodgateApi, onlinePlayers);
+        databaseManager = new DatabaseManager(config, logger, metrics);
+        var gamertagService =
+                new GamertagService(databaseManager, playerManager::fetchGamertagFor, config.gamertagCache());
+        linkLookupService = new LinkLookupService(
+                playerManager, databaseManager, gamertagService, config.linkCache(), metrics);
+        linkLookupService.onInvalidate(pendingLookups::add);
+
+        var codeSpace = new LinkCodeSpace(
+                LinkManager.LINK_CODE_SPACE,
+                config.linkRequests().nodeId(),
+                config.linkRequests().nodeCount(),
+                config.linkRequests().layout());
+        sharedLinkRequests = config.linkRequests().store() == Config.LinkRequests.StoreType.MARIADB;
+        LinkRequestStore linkRequestStore = switch (config.linkRequests().store()) {
+            case MEMORY -> new InMemoryLinkRequestStore(codeSpace);
+            case MARIADB -> new MariaDbLinkRequestStore(databaseManager, codeSpace);
+        };
+        linkManager = new LinkManager(
+                playerManager,
+                databaseManager,
+                linkLookupService,
+                gamertagService,
+                linkRequestStore,
+                codeSpace,
+                metrics);
+        linkInfoService = new LinkInfoService(linkLookupService, playerManager);
+        commandHandler = new CommandHandler(
+                linkLookupService, linkInfoService, linkManager, playerManager, config.rateLimits(), mainThread);
+
+        registerMetrics(config.linkRequests().nodeCount());
+        if (config.metrics().enabled()) {
+            try {
+                metricsServer = new MetricsServer(metrics, config.metrics().bind(), config.metrics().port());
+                metricsServer.start();
+            } catch (IOException exception) {
+                logger.severe("Failed to start the metrics server on port " + config.metrics().port());
+                exception.printStackTrace();
+            }
+        }
+    }
+
+    public void shutdown() {
+        if (metricsServer != null) {
+            metricsServer.stop();
+        }
+    }
+
+    /**
+     * Schedules the periodic tasks every platform has in common.
+     */
+    public void scheduleTasks(PlatformScheduler scheduler) {
+        // expire link requests every second
+        scheduler.repeat(linkManager::cleanupLinkRequests, 1, 1, TimeUnit.SECONDS);
+
+        // forget the requests that have been redeemed on another instance, until they expire their codes can't be used
+        if (sharedLinkRequests) {
+            scheduler.repeat(linkManager::reconcileLinkRequests, 30, 30, TimeUnit.SECONDS);
+        }
+
+        // look up the players whose lookup failed or was invalidated again
+        scheduler.repeat(this::retryLookups, 1, 1, TimeUnit.SECONDS);
+
+        // warn when a partition of the code space is close to running out of codes
+        scheduler.repeat(this::checkCodeSpaceUsage, 1, 1, TimeUnit.MINUTES);
+
+        // report rate limited link commands, a lot of them usually means that someone is flooding the server
+        scheduler.repeat(this::checkRateLimits, 1, 1, TimeUnit.MINUTES);
+
+        // replicas that can't be reached don't get reads until they can be reached again
+        scheduler.repeatAsync(databaseManager::checkReplicas, 5, 5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Looks up the link of a player that joined and passes it to the given consumer on the main thread. When the lookup
+     * fails the player is told so, and the lookup is retried until it succeeds or the player leaves. The same happens
+     * when the link of the player is looked up again, e.g. because the player was linked on another instance.
+     * Should be called on the main thread.
+     */
+    public void lookupJoinedPlayer(PlatformPlayer player, Consumer<@Nullable FullLink> onLookup) {
+        var joinedPlayer = new JoinedPlayer(player, onLookup);
+        joinedPlayers.put(player.uniqueId(), joinedPlayer);
+        lookup(joinedPlayer);
+    }
+
+    /**
+     * Should be called on the main thread when a player leaves.
+     */
+    public void playerLeft(UUID uuid) {
+        joinedPlayers.remove(uuid);
+        pendingLookups.remove(uuid);
+        linkLookupService.release(uuid);
+    }
+
+    private void retryLookups() {
+        if (pendingLookups.isEmpty()) {
+            return;
+        }
+
+        // the lookups would be refused while the circuit is open, a single one finds out when the database is back
+        boolean probeOnly = databaseManager.circuitState() != CircuitBreaker.State.CLOSED;
+        for (var iterator = pendingLookups.iterator(); iterator.hasNext(); ) {
+            var joinedPlayer = joinedPlayers.get(iterator.next());
+            // e.g. the other account of a link
+            if (joinedPlayer == null) {
+                iterator.remove();
+                continue;
+            }
+            // a lookup that was invalidated while it was in process is retried once it's done
+            if (joinedPlayer.lookupInProcess) {
+                continue;
+            }
+
+            iterator.remove();
+            lookup(joinedPlayer);
+            if (probeOnly) {
+                return;
+            }
+        }
+    }
+
+    private void lookup(JoinedPlayer joinedPlayer) {
+        var player = joinedPlayer.player;
+        joinedPlayer.lookupInProcess = true;
+        linkLookupService
+                .lookup(player.uniqueId(), player.name())
+                .whenCompleteAsync(
+                        (link, throwable) -> {
+                            joinedPlayer.lookupInProcess = false;
+                            if (joinedPlayers.get(player.uniqueId()) != joinedPlayer) {
+                                return;
+                            }
+
+                            if (throwable == null) {
+                                joinedPlayer.failed = false;
+                                joinedPlayer.onLookup.accept(link);
+                                return;
+                            }
+
+                            // the lookup is retried once the database is available again
+                            pendingLookups.add(player.uniqueId());
+                            if (!joinedPlayer.failed) {
+                                joinedPlayer.failed = true;
+                                player.sendMessage(Components.INFO_UNAVAILABLE);
+                                if (!DatabaseManager.isUnavailable(throwable)) {
+                                    throwable.printStackTrace();
+                                }
+                            }
+                        },
+                        mainThread);
+    }
+
+    /**
+     * Reports rate limited link commands, a lot of them usually means that someone is flooding the server.
+     */
+    private void checkRateLimits() {
+        commandHandler.decayRateLimits();
+
+        long rateLimited = commandHandler.rateLimitedCount();
+        if (rateLimited > lastRateLimitedCount) {
+            logger.warning("Rejected %s link commands in the last minute because of the rate limits"
+                    .formatted(rateLimited - lastRateLimitedCount));
+        }
+        lastRateLimitedCount = rateLimited;
+    }
+
+    /**
+     * Warns when a partition of the code space is close to running out of codes.
+     */
+    private void checkCodeSpaceUsage() {
+        linkManager.codeSpaceUsage().whenComplete((usage, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+                return;
+            }
+
+            lastCodeSpaceUsage = usage;
+            for (int node = 0; node < usage.length; node++) {
+                if (usage[node] >= CODE_SPACE_USAGE_WARNING) {
+                    logger.warning("The link codes of node %s are %.0f%% in use, consider adding more nodes"
+                            .formatted(node, usage[node] * 100));
+                }
+            }
+        });
+    }
+
+    private void registerMetrics(int nodeCount) {
+        metrics.counterFunction(
+                "rate_limited_commands_total",
+                "Link commands rejected by the rate limits, updated every minute",
+                () -> lastRateLimitedCount);
+
+        lastCodeSpaceUsage = new double[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            int index = node;
+            metrics.gauge(
+                    "code_space_usage_ratio",
+                    "How full the link codes of a node are, updated every minute",
+                    () -> lastCodeSpaceUsage[index],
+                    "node",
+                    Integer.toString(node));
+        }
+
+        // the pool is only asked once per scrape, every gauge reads from the same snapshot
+        lastPoolMetrics = databaseManager.poolMetrics();
+        metrics.onScrape(() -> lastPoolMetrics = databaseManager.poolMetrics());
+        metrics.gauge("db_pool_active_connections", "Connections in use", () -> lastPoolMetrics.activeConnections());
+        metrics.gauge("db_pool_idle_connections", "Connections not in use", () -> lastPoolMetrics.idleConnections());
+        metrics.counterFunction(
+                "db_pool_borrows_total", "Connections taken from the pool", () -> lastPoolMetrics.borrows());
+        metrics.counterFunction(
+                "db_pool_borrow_wait_seconds_total",
+                "Time spent waiting for a connection",
+                () -> lastPoolMetrics.totalBorrowWaitNanos() / 1e9);
+        metrics.gauge(
+                "db_executor_queued_tasks",
+                "Database tasks waiting for a connection",
+                () -> lastPoolMetrics.queuedTasks());
+        metrics.counterFunction(
+                "db_executor_executed_tasks_total", "Database tasks executed", () -> lastPoolMetrics.executedTasks());
+        metrics.counterFunction(
+                "db_executor_rejected_tasks_total",
+                "Database tasks rejected because the queue was full",
+                () -> lastPoolMetrics.rejectedTasks());
+        metrics.counterFunction(
+                "db_executor_queue_wait_seconds_total",
+                "Time database tasks spent in the queue",
+                () -> lastPoolMetrics.totalQueueWaitNanos() / 1e9);
+        metrics.gauge(
+                "db_circuit_open",
+                "Whether database calls are currently refused because the database is unavailable",
+                () -> databaseManager.circuitState() == CircuitBreaker.State.CLOSED ? 0 : 1);
+    }
+
+    public MetricsRegistry metrics() {
+        return metrics;
+    }
+
+    public PlayerManager playerManager() {
+        return playerManager;
+    }
+
+    public DatabaseManager databaseManager() {
+        return databaseManager;
+    }
+
+    public LinkLookupService linkLookupService() {
+        return linkLookupService;
+    }
+
+    public LinkManager linkManager() {
+        return linkManager;
+    }
+
+    public LinkInfoService linkInfoService() {
+        return linkInfoService;
+    }
+
+    public CommandHandler commandHandler() {
+        return commandHandler;
+    }
+
+    private static final class JoinedPlayer {
+        private final PlatformPlayer player;
+        private final Consumer<@Nullable FullLink> onLookup;
+        private boolean lookupInProcess;
+        // whether the player has been told that the lookup failed
+        private boolean failed;
+
+        private JoinedPlayer(PlatformPlayer player, Consumer<@Nullable FullLink> onLookup) {
+            this.player = player;
+            this.onLookup = onLookup;
+        }
+    }
+}
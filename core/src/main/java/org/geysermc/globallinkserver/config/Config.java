@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2021-2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.config;
+
+import java.util.List;
+import org.geysermc.globallinkserver.link.LinkCodeSpace;
+import org.geysermc.globallinkserver.manager.JavaIdFormat;
+
+public record Config(
+    Database database,
+    CircuitBreaker circuitBreaker,
+    LinkRequests linkRequests,
+    LinkCache linkCache,
+    GamertagCache gamertagCache,
+    RateLimits rateLimits,
+    Metrics metrics,
+    LeanMode leanMode
+) {
+    public record Database(
+            String hostname,
+            String username,
+            String password,
+            String database,
+            int maxPoolSize,
+            int maxQueuedTasks,
+            JavaIdFormat javaIdFormat,
+            boolean dropStringJavaId,
+            List<String> replicas,
+            long replicaPinSeconds
+    ) {}
+
+    public record CircuitBreaker(
+            int windowSize,
+            int minimumCalls,
+            double failureRateThreshold,
+            double slowCallRateThreshold,
+            long slowCallMillis,
+            long openSeconds,
+            int halfOpenProbes
+    ) {}
+
+    public record LinkCache(
+            long retentionSeconds,
+            long maximumSize
+    ) {}
+
+    public record GamertagCache(
+            long maximumSize,
+            long refreshAfterSeconds
+    ) {}
+
+    public record RateLimits(
+            RateLimit startLink,
+            RateLimit linkWithCode,
+            RateLimit address
+    ) {
+        public record RateLimit(
+                boolean enabled,
+                int burst,
+                long intervalSeconds
+        ) {}
+    }
+
+    public record Metrics(
+            boolean enabled,
+            String bind,
+            int port
+    ) {}
+
+    /**
+     * Only used by the Paper plugin, the distances are at least the lowest ones the server allows.
+     */
+    public record LeanMode(
+            boolean enabled,
+            int viewDistance,
+            int simulationDistance
+    ) {}
+
+    public record LinkRequests(
+            StoreType store,
+            int nodeId,
+            int nodeCount,
+            LinkCodeSpace.Layout layout
+    ) {
+        public enum StoreType {
+            MEMORY,
+            MARIADB
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2021-2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.config;
+
+import java.util.List;
+import java.util.Locale;
+import org.geysermc.globallinkserver.link.LinkCodeSpace;
+import org.geysermc.globallinkserver.manager.JavaIdFormat;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+@NullMarked
+public class ConfigReader {
+    // the lowest distances a Paper server allows
+    private static final int MIN_VIEW_DISTANCE = 2;
+    private static final int MIN_SIMULATION_DISTANCE = 2;
+    // a missing section is read as if it was empty, so every value falls back to its default
+    private static final ConfigSection EMPTY_SECTION = new EmptySection();
+
+    /**
+     * Reads the config of every platform, a platform ignores the sections it doesn't use.
+     */
+    public static Config readConfig(ConfigSection config) {
+        // the only section without sensible defaults
+        var databaseSection = config.section("database");
+        if (databaseSection == null) {
+            throw new IllegalArgumentException("The config is missing the database section");
+        }
+
+        var database = new Config.Database(
+                databaseSection.getString("hostname"),
+                databaseSection.getString("username"),
+                databaseSection.getString("password"),
+                databaseSection.getString("database"),
+                databaseSection.getInt("max-pool-size", 3),
+                databaseSection.getInt("max-queued-tasks", 1000),
+                JavaIdFormat.valueOf(databaseSection.getString("java-id-format", "dual").toUpperCase(Locale.ROOT)),
+                databaseSection.getBoolean("drop-string-java-id", false),
+                databaseSection.getStringList("replicas"),
+                databaseSection.getLong("replica-pin-seconds", 10));
+
+        var circuitBreakerSection = optionalSection(config, "circuit-breaker");
+        var circuitBreaker = new Config.CircuitBreaker(
+                circuitBreakerSection.getInt("window-size", 20),
+                circuitBreakerSection.getInt("minimum-calls", 10),
+                circuitBreakerSection.getDouble("failure-rate-threshold", 0.5),
+                circuitBreakerSection.getDouble("slow-call-rate-threshold", 0.5),
+                circuitBreakerSection.getLong("slow-call-millis", 2000),
+                circuitBreakerSection.getLong("open-seconds", 10),
+                circuitBreakerSection.getInt("half-open-probes", 3));
+
+        var linkRequestsSection = optionalSection(config, "link-requests");
+        var linkRequests = new Config.LinkRequests(
+                Config.LinkRequests.StoreType.valueOf(
+                        linkRequestsSection.getString("store", "memory").toUpperCase(Locale.ROOT)),
+                linkRequestsSection.getInt("node-id", 0),
+                linkRequestsSection.getInt("node-count", 1),
+                LinkCodeSpace.Layout.valueOf(
+                        linkRequestsSection.getString("layout", "interleaved").toUpperCase(Locale.ROOT)));
+
+        var linkCacheSection = optionalSection(config, "link-cache");
+        var linkCache = new Config.LinkCache(
+                linkCacheSection.getLong("retention-seconds", 600), linkCacheSection.getLong("maximum-size", 10_000));
+
+        var gamertagCacheSection = optionalSection(config, "gamertag-cache");
+        var gamertagCache = new Config.GamertagCache(
+                gamertagCacheSection.getLong("maximum-size", 10_000),
+                gamertagCacheSection.getLong("refresh-after-seconds", 86_400));
+
+        var rateLimitsSection = optionalSection(config, "rate-limits");
+        var rateLimits = new Config.RateLimits(
+                readRateLimit(rateLimitsSection, "start-link", 3, 20),
+                readRateLimit(rateLimitsSection, "link-with-code", 5, 5),
+                readRateLimit(rateLimitsSection, "address", 10, 2));
+
+        var metricsSection = optionalSection(config, "metrics");
+        var metrics = new Config.Metrics(
+                metricsSection.getBoolean("enabled", false),
+                metricsSection.getString("bind", "127.0.0.1"),
+                metricsSection.getInt("port", 9464));
+
+        var leanMode = readLeanMode(config);
+
+        return new Config(
+                database, circuitBreaker, linkRequests, linkCache, gamertagCache, rateLimits, metrics, leanMode);
+    }
+
+    private static ConfigSection optionalSection(ConfigSection config, String key) {
+        var section = config.section(key);
+        return section != null ? section : EMPTY_SECTION;
+    }
+
+    private static Config.LeanMode readLeanMode(ConfigSection config) {
+        var section = optionalSection(config, "lean-mode");
+        return new Config.LeanMode(
+                section.getBoolean("enabled", false),
+                Math.max(section.getInt("view-distance", MIN_VIEW_DISTANCE), MIN_VIEW_DISTANCE),
+                Math.max(section.getInt("simulation-distance", MIN_SIMULATION_DISTANCE), MIN_SIMULATION_DISTANCE));
+    }
+
+    private static Config.RateLimits.RateLimit readRateLimit(
+            ConfigSection rateLimits, String key, int burst, long intervalSeconds) {
+        var section = optionalSection(rateLimits, key);
+        return new Config.RateLimits.RateLimit(
+                section.getBoolean("enabled", true),
+                section.getInt("burst", burst),
+                section.getLong("interval-seconds", intervalSeconds));
+    }
+
+    private static final class EmptySection implements ConfigSection {
+        @Override
+        public @Nullable ConfigSection section(String key) {
+            return null;
+        }
+
+        @Override
+        public @Nullable String getString(String key) {
+            return null;
+        }
+
+        @Override
+        public String getString(String key, String def) {
+            return def;
+        }
+
+        @Override
+        public int getInt(String key, int def) {
+            return def;
+        }
+
+        @Override
+        public long getLong(String key, long def) {
+            return def;
+        }
+
+        @Override
+        public double getDouble(String key, double def) {
+            return def;
+        }
+
+        @Override
+        public boolean getBoolean(String key, boolean def) {
+            return def;
+        }
+
+        @Override
+        public List<String> getStringList(String key) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.config;
+
+import java.util.List;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A section of the config file, so every platform can read the config with its own config library.
+ */
+@NullMarked
+public interface ConfigSection {
+    /**
+     * Returns the section with the given key, or null if there is no such section.
+     */
+    @Nullable ConfigSection section(String key);
+
+    @Nullable String getString(String key);
+
+    String getString(String key, String def);
+
+    int getInt(String key, int def);
+
+    long getLong(String key, long def);
+
+    double getDouble(String key, double def);
+
+    boolean getBoolean(String key, boolean def);
+
+    List<String> getStringList(String key);
+}
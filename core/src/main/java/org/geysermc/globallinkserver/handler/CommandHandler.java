@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2021-2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.handler;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import net.kyori.adventure.text.Component;
+import org.geysermc.globallinkserver.Components;
+import org.geysermc.globallinkserver.config.Config;
+import org.geysermc.globallinkserver.link.FullLink;
+import org.geysermc.globallinkserver.link.Link;
+import org.geysermc.globallinkserver.link.LinkManager;
+import org.geysermc.globallinkserver.link.LinkRequest;
+import org.geysermc.globallinkserver.manager.DatabaseManager;
+import org.geysermc.globallinkserver.manager.PlayerManager;
+import org.geysermc.globallinkserver.platform.PlatformPlayer;
+import org.geysermc.globallinkserver.service.LinkInfoService;
+import org.geysermc.globallinkserver.service.LinkLookupService;
+import org.geysermc.globallinkserver.util.RateLimiter;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The link commands of every platform. Has to be called from a single thread (the main thread on Paper), which is
+ * also where the players are kicked once they're linked or unlinked.
+ */
+@NullMarked
+public final class CommandHandler {
+    private final LinkLookupService linkLookupService;
+    private final LinkInfoService linkInfoService;
+    private final LinkManager linkManager;
+    private final PlayerManager playerManager;
+    private final Executor mainThread;
+
+    // null when the limit is disabled
+    private final @Nullable RateLimiter<UUID> startLinkLimiter;
+    private final @Nullable RateLimiter<UUID> linkWithCodeLimiter;
+    // shared by both commands, against multiple accounts from the same address
+    private final @Nullable RateLimiter<InetAddress> addressLimiter;
+
+    public CommandHandler(
+            LinkLookupService linkLookupService,
+            LinkInfoService linkInfoService,
+            LinkManager linkManager,
+            PlayerManager playerManager,
+            Config.RateLimits rateLimits,
+            Executor mainThread) {
+        this.linkLookupService = linkLookupService;
+        this.linkInfoService = linkInfoService;
+        this.linkManager = linkManager;
+        this.playerManager = playerManager;
+        this.mainThread = mainThread;
+        this.startLinkLimiter = createLimiter(rateLimits.startLink());
+        this.linkWithCodeLimiter = createLimiter(rateLimits.linkWithCode());
+        this.addressLimiter = createLimiter(rateLimits.address());
+    }
+
+    public void startLink(PlatformPlayer player) {
+        if (isRateLimited(player, startLinkLimiter)) {
+            player.sendMessage(Components.LINK_RATE_LIMITED);
+            return;
+        }
+
+        // without knowing the current link we can't tell whether the player is allowed to link
+        if (!linkLookupService.isLookupCompleted(player.uniqueId())) {
+            player.sendMessage(Components.LINK_INFO_UNAVAILABLE);
+            return;
+        }
+
+        if (linkLookupService.isLinkedCached(player.uniqueId())) {
+            player.sendMessage(Components.LINK_ALREADY_LINKED);
+            linkInfoService.sendCurrentLinkInfo(player);
+            return;
+        }
+
+        if (linkManager.removeActiveLinkRequest(player.uniqueId())) {
+            player.sendMessage(Components.LINK_REQUEST_REPLACED);
+        }
+
+        linkManager.createTempLink(player).whenComplete((linkCode, error) -> {
+            if (error != null) {
+                sendError(player, error, Components.LINK_CREATE_ERROR);
+                return;
+            }
+
+            if (linkCode == -1) {
+                player.sendMessage(Components.LINK_CODES_EXHAUSTED);
+                return;
+            }
+
+            String code = String.format("%04d", linkCode);
+            String otherPlatform = playerManager.isBedrockPlayer(player.uniqueId()) ? "Java" : "Bedrock";
+            player.sendMessage(Components.linkStarted(otherPlatform, code));
+        });
+    }
+
+    public void linkWithCode(PlatformPlayer player, int code) {
+        if (code < 0 || code > 9999) {
+            player.sendMessage(Components.LINK_CODE_INVALID_RANGE);
+            return;
+        }
+
+        if (isRateLimited(player, linkWithCodeLimiter)) {
+            player.sendMessage(Components.LINK_RATE_LIMITED);
+            return;
+        }
+
+        linkManager.linkRequestByCode(code).whenComplete((linkRequest, error) -> {
+            if (error != null) {
+                sendError(player, error, Components.LINK_CREATE_ERROR);
+                return;
+            }
+
+            if (linkRequest == null) {
+                player.sendMessage(Components.LINK_REQUEST_NOT_FOUND);
+                return;
+            }
+
+            completeLink(player, linkRequest);
+        });
+    }
+
+    private void completeLink(PlatformPlayer player, LinkRequest linkRequest) {
+        boolean isRequesterBedrock = playerManager.isBedrockId(linkRequest.requesterUuid());
+        boolean isCompleteLink = isRequesterBedrock != playerManager.isBedrockId(player.uniqueId());
+
+        if (!isCompleteLink) {
+            player.sendMessage(Components.LINK_REQUEST_SAME_PLATFORM);
+            return;
+        }
+
+        var completedLink = Link.fromRequest(linkRequest, player.uniqueId(), player.name(), isRequesterBedrock);
+
+        linkManager.finaliseLink(completedLink).whenComplete((result, error) -> {
+            if (error != null) {
+                sendError(player, error, Components.LINK_CREATE_ERROR);
+                return;
+            }
+            if (!result) {
+                player.sendMessage(Components.LINK_CREATE_ERROR);
+                return;
+            }
+
+            mainThread.execute(() -> {
+                player.kick(Components.LINK_CREATE_SUCCESS);
+
+                var requestPlayer = playerManager.onlinePlayer(linkRequest.requesterUuid());
+                if (requestPlayer != null) {
+                    requestPlayer.kick(Components.LINK_CREATE_SUCCESS);
+                }
+            });
+        });
+    }
+
+    public void unlink(PlatformPlayer player) {
+        if (!linkLookupService.isLookupCompleted(player.uniqueId())) {
+            player.sendMessage(Components.LINK_INFO_UNAVAILABLE);
+            return;
+        }
+
+        FullLink currentLink = linkLookupService.cachedLookup(player.uniqueId());
+        if (currentLink == null) {
+            player.sendMessage(Components.UNLINK_NOT_LINKED);
+            return;
+        }
+
+        linkManager.unlinkAccount(player.uniqueId()).whenComplete((result, error) -> {
+            if (error != null) {
+                sendError(player, error, Components.UNLINK_ERROR);
+                return;
+            }
+
+            mainThread.execute(() -> {
+                if (result) {
+                    player.kick(Components.UNLINK_SUCCESS);
+
+                    // Lookup whether the player's link is online, kick em too
+                    var otherLink = playerManager.onlinePlayer(currentLink.getOpposed(player.uniqueId()));
+                    if (otherLink != null) {
+                        otherLink.kick(Components.UNLINK_SUCCESS);
+                    }
+                } else {
+                    // Technically impossible
+                    player.kick(Components.UNLINK_NOT_LINKED);
+                }
+            });
+        });
+    }
+
+    private boolean isRateLimited(PlatformPlayer player, @Nullable RateLimiter<UUID> playerLimiter) {
+        if (playerLimiter != null && !playerLimiter.tryAcquire(player.uniqueId())) {
+            return true;
+        }
+        var address = player.address();
+        return addressLimiter != null && address != null && !addressLimiter.tryAcquire(address);
+    }
+
+    /**
+     * Forgets the players and addresses that are no longer limited.
+     */
+    public void decayRateLimits() {
+        for (var limiter : Arrays.asList(startLinkLimiter, linkWithCodeLimiter, addressLimiter)) {
+            if (limiter != null) {
+                limiter.decay();
+            }
+        }
+    }
+
+    /**
+     * Returns how many link commands have been rejected by the rate limits in total.
+     */
+    public long rateLimitedCount() {
+        long count = 0;
+        for (var limiter : Arrays.asList(startLinkLimiter, linkWithCodeLimiter, addressLimiter)) {
+            if (limiter != null) {
+                count += limiter.rejectedCount();
+            }
+        }
+        return count;
+    }
+
+    private static <K> @Nullable RateLimiter<K> createLimiter(Config.RateLimits.RateLimit limit) {
+        if (!limit.enabled()) {
+            return null;
+        }
+        return new RateLimiter<>(limit.burst(), limit.intervalSeconds(), TimeUnit.SECONDS);
+    }
+
+    private void sendError(PlatformPlayer player, Throwable error, Component message) {
+        // requests are refused instead of queued while the database is unavailable
+        if (DatabaseManager.isUnavailable(error)) {
+            player.sendMessage(Components.LINK_SERVICE_UNAVAILABLE);
+            return;
+        }
+        error.printStackTrace();
+        player.sendMessage(message);
+    }
+}
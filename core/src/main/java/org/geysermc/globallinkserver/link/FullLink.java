@@ -5,14 +5,12 @@
  */
 package org.geysermc.globallinkserver.link;
 
-import org.bukkit.entity.Player;
-
 import java.util.UUID;
 import org.jspecify.annotations.NullMarked;
 
 @NullMarked
 public record FullLink(UUID bedrockId, String bedrockUsername, UUID javaId, String javaUsername) {
-    public UUID getOpposed(Player player) {
-        return player.getUniqueId().equals(bedrockId) ? javaId : bedrockId;
+    public UUID getOpposed(UUID uuid) {
+        return uuid.equals(bedrockId) ? javaId : bedrockId;
     }
 }
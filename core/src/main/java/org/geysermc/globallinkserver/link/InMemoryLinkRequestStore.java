@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.link;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Keeps the link requests in memory, so they can only be redeemed on the instance that created them.
+ */
+@NullMarked
+public final class InMemoryLinkRequestStore implements LinkRequestStore {
+    private final LinkCodeSpace codeSpace;
+    private final LinkCodeAllocator allocator;
+
+    public InMemoryLinkRequestStore(LinkCodeSpace codeSpace) {
+        this.codeSpace = codeSpace;
+        this.allocator = new LinkCodeAllocator(codeSpace);
+    }
+
+    @Override
+    public CompletableFuture<@Nullable LinkRequest> create(IntFunction<LinkRequest> requestFactory) {
+        return CompletableFuture.completedFuture(allocator.allocate(requestFactory));
+    }
+
+    @Override
+    public CompletableFuture<@Nullable LinkRequest> redeem(int code) {
+        return CompletableFuture.completedFuture(allocator.remove(code));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> remove(LinkRequest request) {
+        return CompletableFuture.completedFuture(allocator.remove(request));
+    }
+
+    @Override
+    public CompletableFuture<List<LinkRequest>> reconcile(Collection<LinkRequest> requests) {
+        // the requests can only be redeemed on this instance, which already forgets them when redeeming
+        return CompletableFuture.completedFuture(List.of());
+    }
+
+    @Override
+    public CompletableFuture<int[]> partitionUsage() {
+        int[] usage = new int[codeSpace.nodeCount()];
+        usage[codeSpace.nodeId()] = allocator.allocated();
+        return CompletableFuture.completedFuture(usage);
+    }
+}
@@ -9,15 +9,15 @@ import java.util.UUID;
 import org.jspecify.annotations.NullMarked;
 
 @NullMarked
-public record Link(UUID javaId, String javaUsername, long bedrockId) {
-    public Link(UUID javaId, String javaUsername, UUID bedrockId) {
-        this(javaId, javaUsername, bedrockId.getLeastSignificantBits());
+public record Link(UUID javaId, String javaUsername, long bedrockId, String bedrockUsername) {
+    public Link(UUID javaId, String javaUsername, UUID bedrockId, String bedrockUsername) {
+        this(javaId, javaUsername, bedrockId.getLeastSignificantBits(), bedrockUsername);
     }
 
     public static Link fromRequest(LinkRequest left, UUID rightId, String rightName, boolean isLeftBedrock) {
         if (isLeftBedrock) {
-            return new Link(rightId, rightName, left.requesterUuid());
+            return new Link(rightId, rightName, left.requesterUuid(), left.requesterUsername());
         }
-        return new Link(left.requesterUuid(), left.requesterUsername(), rightId);
+        return new Link(left.requesterUuid(), left.requesterUsername(), rightId, rightName);
     }
 }
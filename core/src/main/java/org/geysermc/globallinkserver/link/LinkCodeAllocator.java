@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.link;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Hands out the link codes of this instance's partition of the code space.
+ * Every code has a dedicated slot, and the codes that are not in use are kept in a shuffled free list.
+ * Allocating pops the last free code, releasing pushes the code back and swaps it with a random free code,
+ * so the order in which codes are handed out stays unpredictable while every operation is O(1).
+ * <p>
+ * Reading a slot is lock-free, mutations are synchronized on the allocator.
+ */
+@NullMarked
+public final class LinkCodeAllocator {
+    private final AtomicReferenceArray<@Nullable LinkRequest> slots;
+    private final int[] freeCodes;
+    private final Random random = new SecureRandom();
+
+    private int freeCount;
+
+    public LinkCodeAllocator(LinkCodeSpace codeSpace) {
+        int[] ownCodes = codeSpace.ownCodes();
+        this.slots = new AtomicReferenceArray<>(codeSpace.size());
+        this.freeCodes = new int[ownCodes.length];
+
+        for (int i = 0; i < ownCodes.length; i++) {
+            // Fisher-Yates while filling the array
+            int j = random.nextInt(i + 1);
+            freeCodes[i] = freeCodes[j];
+            freeCodes[j] = ownCodes[i];
+        }
+        this.freeCount = ownCodes.length;
+    }
+
+    /**
+     * Reserves a free code and stores the request created by the given factory in its slot.
+     *
+     * @return the stored request, or null if every code is in use
+     */
+    public synchronized @Nullable LinkRequest allocate(IntFunction<LinkRequest> requestFactory) {
+        if (freeCount == 0) {
+            return null;
+        }
+
+        int code = freeCodes[freeCount - 1];
+        var request = requestFactory.apply(code);
+        // only claim the code once the factory didn't throw
+        freeCount--;
+        slots.set(code, request);
+        return request;
+    }
+
+    public @Nullable LinkRequest get(int code) {
+        if (!isInRange(code)) {
+            return null;
+        }
+        return slots.get(code);
+    }
+
+    /**
+     * Removes the request stored for the given code and makes the code available again.
+     *
+     * @return the request that was stored for the code, or null if the code wasn't in use
+     */
+    public synchronized @Nullable LinkRequest remove(int code) {
+        if (!isInRange(code)) {
+            return null;
+        }
+
+        var request = slots.getAndSet(code, null);
+        if (request != null) {
+            pushFree(code);
+        }
+        return request;
+    }
+
+    /**
+     * Removes the given request, but only if it's still the request that is stored for its code.
+     *
+     * @return true if the request was removed
+     */
+    public synchronized boolean remove(LinkRequest request) {
+        int code = request.code();
+        if (!isInRange(code) || !slots.compareAndSet(code, request, null)) {
+            return false;
+        }
+        pushFree(code);
+        return true;
+    }
+
+    public synchronized int allocated() {
+        return freeCodes.length - freeCount;
+    }
+
+    /**
+     * Returns the amount of codes in this instance's partition
+     */
+    public int capacity() {
+        return freeCodes.length;
+    }
+
+    private void pushFree(int code) {
+        // swap the released code with a random free code to keep the free list shuffled
+        int index = random.nextInt(freeCount + 1);
+        freeCodes[freeCount] = freeCodes[index];
+        freeCodes[index] = code;
+        freeCount++;
+    }
+
+    private boolean isInRange(int code) {
+        return code >= 0 && code < slots.length();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.link;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Splits the link codes into one partition per instance, so every instance can hand out codes without having to
+ * coordinate with the other instances.
+ *
+ * @param size      the total amount of codes, the codes go from 0 up to (but excluding) the size
+ * @param nodeId    the partition of this instance
+ * @param nodeCount the amount of partitions
+ * @param layout    how the codes are divided over the partitions
+ */
+@NullMarked
+public record LinkCodeSpace(int size, int nodeId, int nodeCount, Layout layout) {
+    public LinkCodeSpace {
+        if (nodeCount < 1 || nodeCount > size) {
+            throw new IllegalArgumentException("Node count has to be between 1 and %s".formatted(size));
+        }
+        if (nodeId < 0 || nodeId >= nodeCount) {
+            throw new IllegalArgumentException("Node id has to be between 0 and %s".formatted(nodeCount - 1));
+        }
+    }
+
+    public static LinkCodeSpace single(int size) {
+        return new LinkCodeSpace(size, 0, 1, Layout.INTERLEAVED);
+    }
+
+    public int ownerOf(int code) {
+        return switch (layout) {
+            case INTERLEAVED -> code % nodeCount;
+            // the last partition also gets the remainder
+            case PREFIX -> Math.min(code / (size / nodeCount), nodeCount - 1);
+        };
+    }
+
+    public boolean isOwnCode(int code) {
+        return code >= 0 && code < size && ownerOf(code) == nodeId;
+    }
+
+    public int[] ownCodes() {
+        int count = 0;
+        for (int code = 0; code < size; code++) {
+            if (ownerOf(code) == nodeId) {
+                count++;
+            }
+        }
+
+        int[] codes = new int[count];
+        int index = 0;
+        for (int code = 0; code < size; code++) {
+            if (ownerOf(code) == nodeId) {
+                codes[index++] = code;
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Returns the amount of codes that belong to every partition, indexed by node id.
+     */
+    public int[] partitionSizes() {
+        int[] sizes = new int[nodeCount];
+        for (int code = 0; code < size; code++) {
+            sizes[ownerOf(code)]++;
+        }
+        return sizes;
+    }
+
+    public enum Layout {
+        /**
+         * Node n owns every code where {@code code % nodeCount == n}
+         */
+        INTERLEAVED,
+        /**
+         * Every node owns a consecutive range, e.g. with 10 nodes the first digit of the code is the node id
+         */
+        PREFIX
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2021-2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.link;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.geysermc.globallinkserver.Components;
+import org.geysermc.globallinkserver.manager.DatabaseManager;
+import org.geysermc.globallinkserver.manager.PlayerManager;
+import org.geysermc.globallinkserver.metrics.Counter;
+import org.geysermc.globallinkserver.metrics.MetricsRegistry;
+import org.geysermc.globallinkserver.platform.PlatformPlayer;
+import org.geysermc.globallinkserver.service.GamertagService;
+import org.geysermc.globallinkserver.service.LinkLookupService;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+@NullMarked
+public final class LinkManager {
+    public static final int LINK_CODE_SPACE = 9999 + 1;
+    private static final int PENDING_LINK_TTL_MILLIS = 15 * 60 * 1000; // 15 min
+    // a request redeemed on another instance is loaded from the store again, so it can't be compared by identity
+    private static final Comparator<LinkRequest> EXPIRY_ORDER = Comparator.comparingLong(LinkRequest::expiryTime)
+            .thenComparingInt(LinkRequest::code)
+            .thenComparing(LinkRequest::requesterUuid);
+
+    private final PlayerManager playerManager;
+    private final LinkLookupService linkLookupService;
+    private final GamertagService gamertagService;
+
+    private final LinkRequestStore linkRequests;
+    private final LinkCodeSpace codeSpace;
+    private final LinkWriter linkWriter;
+    // ordered by expiry time, so only the expired requests are visited, and redeemed requests can be taken out
+    private final NavigableSet<LinkRequest> expiryQueue = new ConcurrentSkipListSet<>(EXPIRY_ORDER);
+    private final Map<UUID, LinkRequest> linkRequestForPlayer = new ConcurrentHashMap<>();
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+
+    private final WriteCounters linkCounters;
+    private final WriteCounters unlinkCounters;
+
+    public LinkManager(
+            PlayerManager playerManager,
+            DatabaseManager database,
+            LinkLookupService linkLookupService,
+            GamertagService gamertagService,
+            LinkRequestStore linkRequests,
+            LinkCodeSpace codeSpace,
+            MetricsRegistry metrics) {
+        this.playerManager = playerManager;
+        this.linkLookupService = linkLookupService;
+        this.gamertagService = gamertagService;
+        this.linkRequests = linkRequests;
+        this.codeSpace = codeSpace;
+        this.linkWriter = new LinkWriter(database);
+
+        this.linkCounters = new WriteCounters(metrics, "link");
+        this.unlinkCounters = new WriteCounters(metrics, "unlink");
+        metrics.gauge(
+                "pending_link_requests",
+                "Link requests created on this node that haven't been redeemed or expired yet",
+                linkRequestForPlayer::size);
+    }
+
+    /**
+     * Creates a new link request for the given player.
+     * The future completes with the code of the link request, or -1 if there are no codes available at the moment.
+     */
+    public CompletableFuture<Integer> createTempLink(PlatformPlayer player) {
+        return linkRequests
+                .create(code -> new LinkRequest(code, PENDING_LINK_TTL_MILLIS, player))
+                .thenApply(linkRequest -> {
+                    if (linkRequest == null) {
+                        return -1;
+                    }
+
+                    // e.g. when the player ran /link again before the previous code was created
+                    var replaced = linkRequestForPlayer.put(player.uniqueId(), linkRequest);
+                    if (replaced != null) {
+                        expiryQueue.remove(replaced);
+                        linkRequests.remove(replaced);
+                    }
+                    expiryQueue.add(linkRequest);
+                    return linkRequest.code();
+                });
+    }
+
+    public CompletableFuture<@Nullable LinkRequest> linkRequestByCode(int code) {
+        return linkRequests.redeem(code).thenApply(link -> {
+            if (link != null) {
+                expiryQueue.remove(link);
+                linkRequestForPlayer.remove(link.requesterUuid(), link);
+            }
+            return isLinkValid(link) ? link : null;
+        });
+    }
+
+    private boolean isLinkValid(@Nullable LinkRequest link) {
+        long currentMillis = System.currentTimeMillis();
+        return link != null && currentMillis < link.expiryTime();
+    }
+
+    public boolean removeActiveLinkRequest(UUID uuid) {
+        var request = linkRequestForPlayer.remove(uuid);
+        if (request == null) {
+            return false;
+        }
+        expiryQueue.remove(request);
+        linkRequests.remove(request);
+        return true;
+    }
+
+    public boolean hasActiveLinkRequest(UUID uuid) {
+        return isLinkValid(linkRequestForPlayer.get(uuid));
+    }
+
+    /**
+     * Returns how full every partition of the code space is, as a fraction between 0 and 1 indexed by node id.
+     */
+    public CompletableFuture<double[]> codeSpaceUsage() {
+        int[] partitionSizes = codeSpace.partitionSizes();
+        return linkRequests.partitionUsage().thenApply(usage -> {
+            double[] fractions = new double[usage.length];
+            for (int node = 0; node < usage.length; node++) {
+                fractions[node] = (double) usage[node] / partitionSizes[node];
+            }
+            return fractions;
+        });
+    }
+
+    public CompletableFuture<Boolean> finaliseLink(Link linkRequest) {
+        // the username of a Bedrock player is mangled to fit a Java username, Floodgate still knows the real gamertag
+        var bedrockPlayer = playerManager.bedrockPlayer(new UUID(0, linkRequest.bedrockId()));
+        var gamertag = bedrockPlayer != null ? bedrockPlayer.getUsername() : null;
+
+        return linkWriter
+                .link(linkRequest)
+                .whenComplete((result, error) -> {
+                    linkCounters.record(result, error);
+                    linkLookupService.invalidate(linkRequest.javaId());
+                    linkLookupService.invalidate(new UUID(0, linkRequest.bedrockId()));
+                })
+                .thenApply(linked -> {
+                    // otherwise the gamertag is fetched from the global api once it's needed
+                    if (linked && gamertag != null) {
+                        gamertagService.remember(linkRequest.bedrockId(), gamertag);
+                    }
+                    return linked;
+                });
+    }
+
+    public CompletableFuture<Boolean> unlinkAccount(UUID uuid) {
+        var currentLink = linkLookupService.cachedLookup(uuid);
+        boolean bedrock = playerManager.isBedrockPlayer(uuid);
+        return linkWriter.unlink(uuid, bedrock).whenComplete((result, error) -> {
+            unlinkCounters.record(result, error);
+            linkLookupService.invalidate(uuid);
+            if (currentLink != null) {
+                linkLookupService.invalidate(currentLink.getOpposed(uuid));
+            }
+        });
+    }
+
+    /**
+     * Removes the link requests that have expired since the last call. Only the expired requests are visited, so this
+     * is cheap enough to run often.
+     */
+    public void cleanupLinkRequests() {
+        long ctm = System.currentTimeMillis();
+
+        for (var iterator = expiryQueue.iterator(); iterator.hasNext(); ) {
+            LinkRequest expired = iterator.next();
+            if (ctm <= expired.expiryTime()) {
+                break;
+            }
+            iterator.remove();
+            linkRequestForPlayer.remove(expired.requesterUuid(), expired);
+
+            linkRequests.remove(expired).whenComplete((removed, error) -> {
+                if (error != null) {
+                    error.printStackTrace();
+                    return;
+                }
+
+                // the request has already been redeemed or replaced
+                if (!removed) {
+                    return;
+                }
+
+                var requester = playerManager.onlinePlayer(expired.requesterUuid());
+                if (requester != null) {
+                    requester.sendMessage(Components.cleanupLinkRequestExpired(expired.code()));
+                }
+            });
+        }
+    }
+
+    /**
+     * Forgets the requests of this instance that have been redeemed on another instance. Every own request is checked
+     * against the store, so this runs a lot less often than {@link #cleanupLinkRequests()}, and only for stores that
+     * share the requests between instances.
+     */
+    public void reconcileLinkRequests() {
+        // a slow database shouldn't pile up reconciles
+        if (linkRequestForPlayer.isEmpty() || !reconciling.compareAndSet(false, true)) {
+            return;
+        }
+
+        linkRequests.reconcile(linkRequestForPlayer.values()).whenComplete((gone, error) -> {
+            reconciling.set(false);
+            if (error != null) {
+                if (!DatabaseManager.isUnavailable(error)) {
+                    error.printStackTrace();
+                }
+                return;
+            }
+
+            for (var request : gone) {
+                expiryQueue.remove(request);
+                // the requester might have been linked on the instance that redeemed the code
+                if (linkRequestForPlayer.remove(request.requesterUuid(), request)) {
+                    linkLookupService.invalidate(request.requesterUuid());
+                }
+            }
+        });
+    }
+
+    private record WriteCounters(Counter changed, Counter unchanged, Counter failed) {
+        private WriteCounters(MetricsRegistry metrics, String operation) {
+            this(
+                    counter(metrics, operation, "changed"),
+                    counter(metrics, operation, "unchanged"),
+                    counter(metrics, operation, "error"));
+        }
+
+        private static Counter counter(MetricsRegistry metrics, String operation, String result) {
+            return metrics.counter(
+                    "link_writes_total", "Links and unlinks by their result", "operation", operation, "result", result);
+        }
+
+        void record(@Nullable Boolean changed, @Nullable Throwable error) {
+            if (error != null) {
+                failed.increment();
+            } else if (Boolean.TRUE.equals(changed)) {
+                this.changed.increment();
+            } else {
+                unchanged.increment();
+            }
+        }
+    }
+}
@@ -6,18 +6,12 @@
 package org.geysermc.globallinkserver.link;
 
 import java.util.UUID;
-import org.bukkit.Bukkit;
-import org.bukkit.entity.Player;
+import org.geysermc.globallinkserver.platform.PlatformPlayer;
 import org.jspecify.annotations.NullMarked;
-import org.jspecify.annotations.Nullable;
 
 @NullMarked
 public record LinkRequest(int code, long expiryTime, UUID requesterUuid, String requesterUsername) {
-    public LinkRequest(int code, long ttl, Player requester) {
-        this(code, System.currentTimeMillis() + ttl, requester.getUniqueId(), requester.getName());
-    }
-
-    public @Nullable Player requester() {
-        return Bukkit.getPlayer(requesterUuid);
+    public LinkRequest(int code, long ttl, PlatformPlayer requester) {
+        this(code, System.currentTimeMillis() + ttl, requester.uniqueId(), requester.name());
     }
 }
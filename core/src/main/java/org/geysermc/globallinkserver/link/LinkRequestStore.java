@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.link;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Stores the pending link requests by their code.
+ * Whether a request can be redeemed on another instance depends on the implementation.
+ */
+@NullMarked
+public interface LinkRequestStore {
+    /**
+     * Claims a free code and stores the request created by the given factory for it.
+     * The future completes with null if there are no codes available.
+     */
+    CompletableFuture<@Nullable LinkRequest> create(IntFunction<LinkRequest> requestFactory);
+
+    /**
+     * Atomically removes the request stored for the given code, so that it can be redeemed at most once.
+     * The returned request might already have expired.
+     */
+    CompletableFuture<@Nullable LinkRequest> redeem(int code);
+
+    /**
+     * Removes the given request, but only if it's still stored (e.g. it hasn't been redeemed yet).
+     */
+    CompletableFuture<Boolean> remove(LinkRequest request);
+
+    /**
+     * Returns the given requests of this instance that are no longer stored, e.g. because they've been redeemed on
+     * another instance, and makes their codes available again.
+     * Stores whose requests can only be redeemed on the instance that created them return an empty list.
+     */
+    CompletableFuture<List<LinkRequest>> reconcile(Collection<LinkRequest> requests);
+
+    /**
+     * Returns the amount of stored requests in every partition of the code space, indexed by node id.
+     * Implementations that can't see the requests of the other instances only report their own partition.
+     */
+    CompletableFuture<int[]> partitionUsage();
+}
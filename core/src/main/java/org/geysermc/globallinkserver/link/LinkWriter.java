@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.link;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import org.geysermc.globallinkserver.manager.DatabaseManager;
+import org.geysermc.globallinkserver.manager.JavaIdFormat;
+import org.geysermc.globallinkserver.manager.NamedQuery;
+import org.geysermc.globallinkserver.util.MicroBatcher;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Writes links and unlinks in groups: the mutations that come in within a few milliseconds of each other are sent as
+ * JDBC batches and committed in a single transaction.
+ * Every mutation still gets its own result. If the group can't be committed, e.g. because one of the mutations
+ * violates a constraint, the mutations are retried one by one so only the failing mutation fails. A mutation that
+ * violates a constraint results in false, any other error fails that mutation only.
+ * When the connection fails or the transaction is rolled back by the database (e.g. a deadlock or a lock timeout) the
+ * whole group fails instead, so the circuit breaker sees it.
+ */
+@NullMarked
+public final class LinkWriter {
+    private static final int WRITE_BATCH_SIZE = 50;
+    private static final long WRITE_BATCH_DELAY_MILLIS = 5;
+
+    private static final NamedQuery UNLINK_BEDROCK_QUERY =
+            new NamedQuery("unlink_bedrock", "DELETE FROM `links` WHERE `bedrock_id` = ?;");
+
+    private final DatabaseManager database;
+    private final NamedQuery linkQuery;
+    private final NamedQuery unlinkJavaQuery;
+    private final MicroBatcher<Mutation, Outcome> mutations;
+
+    public LinkWriter(DatabaseManager database) {
+        this.database = database;
+        this.linkQuery = linkQuery(database.javaIdFormat());
+        this.unlinkJavaQuery = new NamedQuery(
+                "unlink_java", "DELETE FROM `links` WHERE %s;".formatted(database.javaIdFormat().whereJavaIdIn(1)));
+        this.mutations = new MicroBatcher<>(
+                WRITE_BATCH_SIZE, WRITE_BATCH_DELAY_MILLIS, database.executor(), database.guarded(this::write));
+    }
+
+    /**
+     * Stores the given link, replacing the existing links of both accounts.
+     * The future completes with true if a row was inserted or changed.
+     */
+    public CompletableFuture<Boolean> link(Link link) {
+        return mutations.submit(new CreateLink(link)).thenApply(Outcome::changedOrThrow);
+    }
+
+    /**
+     * Removes the link of the given account.
+     * The future completes with true if the account was linked.
+     */
+    public CompletableFuture<Boolean> unlink(UUID uuid, boolean bedrock) {
+        Mutation mutation = bedrock ? new RemoveBedrockLink(uuid.getLeastSignificantBits()) : new RemoveJavaLink(uuid);
+        return mutations.submit(mutation).thenApply(Outcome::changedOrThrow);
+    }
+
+    private List<Outcome> write(List<Mutation> batch) throws SQLException {
+        try (Connection connection = database.connection()) {
+            connection.setAutoCommit(false);
+            try {
+                var results = writeGroup(connection, batch);
+                connection.commit();
+                connection.setAutoCommit(true);
+                return results.stream().map(Outcome::of).toList();
+            } catch (SQLException exception) {
+                // the connection may be gone, which shouldn't hide why the group failed
+                try {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                } catch (SQLException resetException) {
+                    exception.addSuppressed(resetException);
+                    throw exception;
+                }
+
+                if (isConnectionFailure(exception)) {
+                    throw exception;
+                }
+                if (batch.size() == 1) {
+                    return List.of(Outcome.of(exception));
+                }
+            }
+
+            // find the mutation that broke the group, without failing the other mutations
+            List<Outcome> outcomes = new ArrayList<>(batch.size());
+            for (Mutation mutation : batch) {
+                try {
+                    outcomes.add(Outcome.of(writeGroup(connection, List.of(mutation)).getFirst()));
+                } catch (SQLException exception) {
+                    if (isConnectionFailure(exception)) {
+                        throw exception;
+                    }
+                    outcomes.add(Outcome.of(exception));
+                }
+            }
+            return outcomes;
+        }
+    }
+
+    /**
+     * Returns whether the given error is caused by the connection or the state of the database rather than by the
+     * mutation itself, e.g. a dropped connection, a deadlock or a lock wait timeout.
+     */
+    private static boolean isConnectionFailure(SQLException exception) {
+        if (exception instanceof SQLTransientException
+                || exception instanceof SQLNonTransientConnectionException
+                || exception instanceof SQLRecoverableException) {
+            return true;
+        }
+        String state = exception.getSQLState();
+        // 08: connection exception, 40: transaction rollback, 1205: lock wait timeout
+        return state != null && (state.startsWith("08") || state.startsWith("40")) || exception.getErrorCode() == 1205;
+    }
+
+    /**
+     * Executes the given mutations in order. Consecutive mutations of the same kind are sent as a single JDBC batch.
+     */
+    private List<Boolean> writeGroup(Connection connection, List<Mutation> batch) throws SQLException {
+        List<Boolean> results = new ArrayList<>(batch.size());
+        int start = 0;
+        while (start < batch.size()) {
+            var query = queryFor(batch.get(start));
+            int end = start + 1;
+            while (end < batch.size() && queryFor(batch.get(end)) == query) {
+                end++;
+            }
+
+            try (PreparedStatement statement = database.prepare(connection, query)) {
+                for (Mutation mutation : batch.subList(start, end)) {
+                    bind(statement, mutation);
+                    statement.addBatch();
+                }
+                for (int updateCount : statement.executeBatch()) {
+                    results.add(updateCount > 0 || updateCount == Statement.SUCCESS_NO_INFO);
+                }
+            }
+            start = end;
+        }
+        return results;
+    }
+
+    private static NamedQuery linkQuery(JavaIdFormat javaIdFormat) {
+        List<String> columns = new ArrayList<>(javaIdFormat.columns());
+        columns.add("bedrock_id");
+        columns.add("java_name");
+        return new NamedQuery(
+                "link",
+                "INSERT INTO `links` (%s) VALUES (%s) ON DUPLICATE KEY UPDATE %s;"
+                        .formatted(
+                                columns.stream().map("`%s`"::formatted).collect(Collectors.joining(", ")),
+                                String.join(", ", Collections.nCopies(columns.size(), "?")),
+                                columns.stream()
+                                        .map("`%1$s` = VALUES(`%1$s`)"::formatted)
+                                        .collect(Collectors.joining(", "))));
+    }
+
+    private NamedQuery queryFor(Mutation mutation) {
+        return switch (mutation) {
+            case CreateLink $ -> linkQuery;
+            case RemoveBedrockLink $ -> UNLINK_BEDROCK_QUERY;
+            case RemoveJavaLink $ -> unlinkJavaQuery;
+        };
+    }
+
+    private void bind(PreparedStatement statement, Mutation mutation) throws SQLException {
+        switch (mutation) {
+            case CreateLink(var link) -> {
+                int index = database.javaIdFormat().bindColumns(statement, 1, link.javaId());
+                statement.setLong(index++, link.bedrockId());
+                statement.setString(index, link.javaUsername());
+            }
+            case RemoveBedrockLink(var xuid) -> statement.setLong(1, xuid);
+            case RemoveJavaLink(var javaId) -> database.javaIdFormat().bindJavaIds(statement, 1, List.of(javaId));
+        }
+    }
+
+    private sealed interface Mutation permits CreateLink, RemoveBedrockLink, RemoveJavaLink {}
+
+    private record CreateLink(Link link) implements Mutation {}
+
+    private record RemoveBedrockLink(long xuid) implements Mutation {}
+
+    private record RemoveJavaLink(UUID javaId) implements Mutation {}
+
+    /**
+     * The result of a single mutation, either whether it changed a row or why it failed.
+     */
+    private record Outcome(boolean changed, @Nullable SQLException error) {
+        private static final Outcome CHANGED = new Outcome(true, null);
+        private static final Outcome UNCHANGED = new Outcome(false, null);
+
+        static Outcome of(boolean changed) {
+            return changed ? CHANGED : UNCHANGED;
+        }
+
+        static Outcome of(SQLException exception) {
+            // e.g. the account has been linked to another account in the meantime
+            if (exception instanceof SQLIntegrityConstraintViolationException
+                    || "23".equals(stateClass(exception.getSQLState()))) {
+                return UNCHANGED;
+            }
+            return new Outcome(false, exception);
+        }
+
+        boolean changedOrThrow() {
+            if (error != null) {
+                throw new CompletionException(error);
+            }
+            return changed;
+        }
+
+        private static @Nullable String stateClass(@Nullable String state) {
+            return state != null && state.length() >= 2 ? state.substring(0, 2) : null;
+        }
+    }
+}
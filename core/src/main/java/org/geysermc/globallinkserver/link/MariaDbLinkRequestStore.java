@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.link;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.IntFunction;
+import org.geysermc.globallinkserver.manager.DatabaseManager;
+import org.geysermc.globallinkserver.manager.NamedQuery;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Stores the link requests in the database, so a code created on one instance can be redeemed on any other instance.
+ * <p>
+ * The unique code column is what makes claiming a code atomic: the insert of whoever is second fails.
+ * Every instance only hands out codes from its own partition of the {@link LinkCodeSpace}, so that only happens when a
+ * request from before a restart is still active.
+ * The requests created by this instance are also kept locally, which means that a code this instance currently hands
+ * out isn't tried again while its request is active and removing an own request doesn't need a lookup first. A code
+ * that couldn't be claimed goes back to the free codes and might be tried again later, once the request that holds it
+ * could have expired.
+ */
+@NullMarked
+public final class MariaDbLinkRequestStore implements LinkRequestStore {
+    private static final int MAX_CLAIM_ATTEMPTS = 10;
+    // the codes are looked up in chunks of this size, the last chunk is padded so there's only one query to prepare
+    private static final int RECONCILE_CHUNK_SIZE = 100;
+
+    private static final NamedQuery CLEAR_EXPIRED_QUERY = new NamedQuery(
+            "pending_link_clear_expired", "DELETE FROM `pending_links` WHERE `code` = ? AND `expiry_time` < ?;");
+    private static final NamedQuery CLAIM_QUERY = new NamedQuery(
+            "pending_link_claim",
+            "INSERT INTO `pending_links` (`code`, `requester_uuid`, `requester_name`, `expiry_time`) "
+                    + "VALUES (?, ?, ?, ?);");
+    private static final NamedQuery LOCK_QUERY = new NamedQuery(
+            "pending_link_lock",
+            "SELECT `requester_uuid`, `requester_name`, `expiry_time` FROM `pending_links` "
+                    + "WHERE `code` = ? FOR UPDATE;");
+    private static final NamedQuery REDEEM_QUERY =
+            new NamedQuery("pending_link_redeem", "DELETE FROM `pending_links` WHERE `code` = ?;");
+    private static final NamedQuery REMOVE_QUERY = new NamedQuery(
+            "pending_link_remove",
+            "DELETE FROM `pending_links` WHERE `code` = ? AND `requester_uuid` = ? AND `expiry_time` = ?;");
+    private static final NamedQuery EXISTING_QUERY = new NamedQuery(
+            "pending_link_existing",
+            "SELECT `code`, `requester_uuid`, `expiry_time` FROM `pending_links` WHERE `code` IN (%s);"
+                    .formatted(String.join(", ", Collections.nCopies(RECONCILE_CHUNK_SIZE, "?"))));
+    private static final NamedQuery ACTIVE_CODES_QUERY =
+            new NamedQuery("pending_link_active_codes", "SELECT `code` FROM `pending_links` WHERE `expiry_time` >= ?;");
+
+    private final DatabaseManager database;
+    private final LinkCodeSpace codeSpace;
+    private final LinkCodeAllocator localRequests;
+
+    public MariaDbLinkRequestStore(DatabaseManager database, LinkCodeSpace codeSpace) {
+        this.database = database;
+        this.codeSpace = codeSpace;
+        this.localRequests = new LinkCodeAllocator(codeSpace);
+    }
+
+    @Override
+    public CompletableFuture<@Nullable LinkRequest> create(IntFunction<LinkRequest> requestFactory) {
+        return database.supplyAsync(
+                () -> {
+                    try (Connection connection = database.connection()) {
+                        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+                            var request = localRequests.allocate(requestFactory);
+                            if (request == null) {
+                                return null;
+                            }
+
+                            boolean claimed = false;
+                            try {
+                                claimed = tryClaim(connection, request);
+                            } finally {
+                                if (!claimed) {
+                                    // the code is still in use by a request from before a restart
+                                    localRequests.remove(request);
+                                }
+                            }
+
+                            if (claimed) {
+                                return request;
+                            }
+                        }
+                        return null;
+                    } catch (SQLException exception) {
+                        throw new CompletionException("Error while creating link request", exception);
+                    }
+                });
+    }
+
+    private boolean tryClaim(Connection connection, LinkRequest request) throws SQLException {
+        // a request that expired but was never removed (e.g. because its instance stopped) doesn't hold the code
+        try (PreparedStatement query = database.prepare(connection, CLEAR_EXPIRED_QUERY)) {
+            query.setInt(1, request.code());
+            query.setLong(2, System.currentTimeMillis());
+            query.executeUpdate();
+        }
+
+        try (PreparedStatement query = database.prepare(connection, CLAIM_QUERY)) {
+            query.setInt(1, request.code());
+            query.setString(2, request.requesterUuid().toString());
+            query.setString(3, request.requesterUsername());
+            query.setLong(4, request.expiryTime());
+            query.executeUpdate();
+            return true;
+        } catch (SQLIntegrityConstraintViolationException exception) {
+            return false;
+        }
+    }
+
+    @Override
+    public CompletableFuture<@Nullable LinkRequest> redeem(int code) {
+        return database.supplyAsync(
+                () -> {
+                    try (Connection connection = database.connection()) {
+                        connection.setAutoCommit(false);
+                        try {
+                            LinkRequest request = null;
+                            try (PreparedStatement query = database.prepare(connection, LOCK_QUERY)) {
+                                query.setInt(1, code);
+                                try (ResultSet resultSet = query.executeQuery()) {
+                                    if (resultSet.next()) {
+                                        request = new LinkRequest(
+                                                code,
+                                                resultSet.getLong("expiry_time"),
+                                                UUID.fromString(resultSet.getString("requester_uuid")),
+                                                resultSet.getString("requester_name"));
+                                    }
+                                }
+                            }
+
+                            if (request != null) {
+                                try (PreparedStatement query = database.prepare(connection, REDEEM_QUERY)) {
+                                    query.setInt(1, code);
+                                    query.executeUpdate();
+                                }
+                            }
+
+                            connection.commit();
+                            localRequests.remove(code);
+                            return request;
+                        } catch (SQLException exception) {
+                            connection.rollback();
+                            throw exception;
+                        } finally {
+                            connection.setAutoCommit(true);
+                        }
+                    } catch (SQLException exception) {
+                        throw new CompletionException("Error while redeeming link request", exception);
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> remove(LinkRequest request) {
+        return database.supplyAsync(
+                () -> {
+                    try (Connection connection = database.connection();
+                            PreparedStatement query = database.prepare(connection, REMOVE_QUERY)) {
+                        query.setInt(1, request.code());
+                        query.setString(2, request.requesterUuid().toString());
+                        query.setLong(3, request.expiryTime());
+                        boolean affected = query.executeUpdate() != 0;
+                        localRequests.remove(request);
+                        return affected;
+                    } catch (SQLException exception) {
+                        throw new CompletionException("Error while removing link request", exception);
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<List<LinkRequest>> reconcile(Collection<LinkRequest> requests) {
+        if (requests.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        List<LinkRequest> local = List.copyOf(requests);
+        return database.supplyAsync(
+                () -> {
+                    try (Connection connection = database.connection();
+                            PreparedStatement query = database.prepare(connection, EXISTING_QUERY)) {
+                        Set<RequestKey> stored = new HashSet<>();
+                        for (int start = 0; start < local.size(); start += RECONCILE_CHUNK_SIZE) {
+                            var chunk = local.subList(start, Math.min(start + RECONCILE_CHUNK_SIZE, local.size()));
+                            for (int i = 0; i < RECONCILE_CHUNK_SIZE; i++) {
+                                query.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)).code());
+                            }
+
+                            try (ResultSet resultSet = query.executeQuery()) {
+                                while (resultSet.next()) {
+                                    stored.add(new RequestKey(
+                                            resultSet.getInt("code"),
+                                            UUID.fromString(resultSet.getString("requester_uuid")),
+                                            resultSet.getLong("expiry_time")));
+                                }
+                            }
+                        }
+
+                        List<LinkRequest> gone = new ArrayList<>();
+                        for (var request : local) {
+                            if (!stored.contains(RequestKey.of(request)) && localRequests.remove(request)) {
+                                gone.add(request);
+                            }
+                        }
+                        return gone;
+                    } catch (SQLException exception) {
+                        throw new CompletionException("Error while reconciling link requests", exception);
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<int[]> partitionUsage() {
+        return database.supplyAsync(
+                () -> {
+                    try (Connection connection = database.connection();
+                            PreparedStatement query = database.prepare(connection, ACTIVE_CODES_QUERY)) {
+                        query.setLong(1, System.currentTimeMillis());
+
+                        int[] usage = new int[codeSpace.nodeCount()];
+                        try (ResultSet resultSet = query.executeQuery()) {
+                            while (resultSet.next()) {
+                                usage[codeSpace.ownerOf(resultSet.getInt("code"))]++;
+                            }
+                        }
+                        return usage;
+                    } catch (SQLException exception) {
+                        throw new CompletionException("Error while counting link requests", exception);
+                    }
+                });
+    }
+
+    /**
+     * What identifies a stored request, the same columns {@link #REMOVE_QUERY} matches on.
+     */
+    private record RequestKey(int code, UUID requesterUuid, long expiryTime) {
+        static RequestKey of(LinkRequest request) {
+            return new RequestKey(request.code(), request.requesterUuid(), request.expiryTime());
+        }
+    }
+}
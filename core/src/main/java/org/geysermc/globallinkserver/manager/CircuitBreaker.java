@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.manager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.geysermc.globallinkserver.config.Config;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Keeps track of the outcome of the last database calls and stops letting calls through once too many of them failed
+ * or were slow, so that callers fail right away instead of waiting for the driver to time out.
+ * After a while a few probe calls are let through again, and once those succeed the circuit closes again.
+ */
+@NullMarked
+public final class CircuitBreaker {
+    private final Logger logger;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    // the outcome of the last calls while the circuit is closed
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int nextCall;
+    private int recordedCalls;
+    private int failedCount;
+    private int slowCount;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    public CircuitBreaker(Config.CircuitBreaker config, Logger logger) {
+        this.logger = logger;
+        this.minimumCalls = config.minimumCalls();
+        this.failureRateThreshold = config.failureRateThreshold();
+        this.slowCallRateThreshold = config.slowCallRateThreshold();
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.slowCallMillis());
+        this.openNanos = TimeUnit.SECONDS.toNanos(config.openSeconds());
+        this.halfOpenProbes = config.halfOpenProbes();
+        this.failedCalls = new boolean[config.windowSize()];
+        this.slowCalls = new boolean[config.windowSize()];
+    }
+
+    /**
+     * Returns whether a call is allowed right now. Every allowed call has to report its outcome through
+     * {@link #onSuccess(long)} or {@link #onFailure(long)}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            probeSuccesses = 0;
+            logger.info("Probing whether the database is available again");
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight + probeSuccesses >= halfOpenProbes) {
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess(long durationNanos) {
+        record(false, durationNanos);
+    }
+
+    public synchronized void onFailure(long durationNanos) {
+        record(true, durationNanos);
+    }
+
+    /**
+     * Gives back a call that was allowed but never reached the database, e.g. because it was rejected by a full queue.
+     * It doesn't count as a success or a failure.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(probesInFlight - 1, 0);
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failed, long durationNanos) {
+        boolean slow = durationNanos >= slowCallNanos;
+        switch (state) {
+            case CLOSED -> {
+                recordClosed(failed, slow);
+                if (recordedCalls >= minimumCalls
+                        && ((double) failedCount / recordedCalls >= failureRateThreshold
+                                || (double) slowCount / recordedCalls >= slowCallRateThreshold)) {
+                    open("%s of the last %s database calls failed and %s were slow"
+                            .formatted(failedCount, recordedCalls, slowCount));
+                }
+            }
+            case HALF_OPEN -> {
+                probesInFlight = Math.max(probesInFlight - 1, 0);
+                if (failed || slow) {
+                    open("a probe call " + (failed ? "failed" : "was slow"));
+                } else if (++probeSuccesses >= halfOpenProbes) {
+                    close();
+                }
+            }
+            case OPEN -> {
+                // calls that were let through before the circuit opened, they don't change anything
+            }
+        }
+    }
+
+    private void recordClosed(boolean failed, boolean slow) {
+        if (recordedCalls == failedCalls.length) {
+            // overwrite the oldest call
+            failedCount -= failedCalls[nextCall] ? 1 : 0;
+            slowCount -= slowCalls[nextCall] ? 1 : 0;
+        } else {
+            recordedCalls++;
+        }
+
+        failedCalls[nextCall] = failed;
+        slowCalls[nextCall] = slow;
+        failedCount += failed ? 1 : 0;
+        slowCount += slow ? 1 : 0;
+        nextCall = (nextCall + 1) % failedCalls.length;
+    }
+
+    private void open(String reason) {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        logger.warning("The database is unavailable because %s, failing database calls for the next %s seconds"
+                .formatted(reason, TimeUnit.NANOSECONDS.toSeconds(openNanos)));
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        nextCall = 0;
+        recordedCalls = 0;
+        failedCount = 0;
+        slowCount = 0;
+        logger.info("The database is available again");
+    }
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.manager;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Runs database work on virtual threads, but only as many tasks at the same time as there are pooled connections.
+ * The other tasks wait for a permit, and once {@code maxQueuedTasks} tasks are waiting new tasks are rejected
+ * instead of piling up behind a slow database.
+ */
+@NullMarked
+public final class DatabaseExecutor implements Executor {
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final int maxQueuedTasks;
+
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+    private final LongAdder executedTasks = new LongAdder();
+    private final LongAdder rejectedTasks = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+    public DatabaseExecutor(int maxConcurrentTasks, int maxQueuedTasks) {
+        this.permits = new Semaphore(maxConcurrentTasks, true);
+        this.maxQueuedTasks = maxQueuedTasks;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (queuedTasks.incrementAndGet() > maxQueuedTasks) {
+            queuedTasks.decrementAndGet();
+            rejectedTasks.increment();
+            throw new RejectedExecutionException("Too many database tasks are waiting (" + maxQueuedTasks + ")");
+        }
+
+        long queuedAt = System.nanoTime();
+        try {
+            threads.execute(() -> run(task, queuedAt));
+        } catch (RejectedExecutionException exception) {
+            queuedTasks.decrementAndGet();
+            rejectedTasks.increment();
+            throw exception;
+        }
+    }
+
+    private void run(Runnable task, long queuedAt) {
+        permits.acquireUninterruptibly();
+        try {
+            queuedTasks.decrementAndGet();
+            long waited = System.nanoTime() - queuedAt;
+            totalQueueWaitNanos.add(waited);
+            maxQueueWaitNanos.accumulateAndGet(waited, Math::max);
+
+            task.run();
+        } finally {
+            executedTasks.increment();
+            permits.release();
+        }
+    }
+
+    public int queuedTasks() {
+        return queuedTasks.get();
+    }
+
+    public long executedTasks() {
+        return executedTasks.sum();
+    }
+
+    public long rejectedTasks() {
+        return rejectedTasks.sum();
+    }
+
+    public long totalQueueWaitNanos() {
+        return totalQueueWaitNanos.sum();
+    }
+
+    public long maxQueueWaitNanos() {
+        return maxQueueWaitNanos.get();
+    }
+}
@@ -0,0 +1,398 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.manager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.sql.DataSource;
+import org.geysermc.globallinkserver.config.Config;
+import org.geysermc.globallinkserver.metrics.Counter;
+import org.geysermc.globallinkserver.metrics.MetricsRegistry;
+import org.geysermc.globallinkserver.util.ThrowingFunction;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.mariadb.jdbc.MariaDbPoolDataSource;
+
+@NullMarked
+public final class DatabaseManager {
+    private static final String POOL_NAME = "GlobalLinkPool";
+    private static final String REPLICA_POOL_NAME = "GlobalLinkReplicaPool";
+    private static final int REPLICA_CHECK_TIMEOUT_SECONDS = 2;
+    // server side prepared statements are cached per connection by the driver, so preparing the same query again on the
+    // same connection doesn't have to parse it again.
+    // Bulk statements are disabled because they don't report the update count of every row in a batch.
+    private static final String CONNECTION_OPTIONS = "useServerPrepStmts=true&cachePrepStmts=true"
+            + "&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048&useBulkStmts=false";
+    // how long the current thread waited for pooled connections, which isn't held against the database when timing a
+    // call: a long wait means that this server is busy, not that the database is slow
+    private static final ThreadLocal<long[]> BORROW_WAIT_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final Logger logger;
+    private final DataSource dataSource;
+    private final List<Replica> replicas = new ArrayList<>();
+    // players that just linked or unlinked are looked up on the primary for a while, so they don't see stale links
+    private final Cache<UUID, Boolean> pinnedToPrimary;
+    private final DatabaseExecutor executor;
+    private final CircuitBreaker circuitBreaker;
+    private final JavaIdFormat javaIdFormat;
+
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder totalBorrowWaitNanos = new LongAdder();
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+    private final MetricsRegistry metrics;
+    // how often every query has been prepared, by the name of the query
+    private final Map<String, Counter> preparedStatements = new ConcurrentHashMap<>();
+
+    public DatabaseManager(Config config, Logger logger, MetricsRegistry metrics) {
+        this(config, logger, metrics, createPrimary(config.database()));
+
+        var databaseConfig = config.database();
+        try {
+            for (int i = 0; i < databaseConfig.replicas().size(); i++) {
+                var hostname = databaseConfig.replicas().get(i);
+                replicas.add(new Replica(hostname, createDataSource(databaseConfig, hostname, REPLICA_POOL_NAME + i)));
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Unable to set the datasource connection fields", exception);
+        }
+
+        connectionCheck();
+        checkReplicas();
+
+        var schemaManager = new SchemaManager(this, logger, databaseConfig.dropStringJavaId());
+        schemaManager.migrate();
+        // the backfill can take a while, so it shouldn't hold on to one of the executor's permits
+        Thread.ofVirtual().name("GlobalLinkServer Backfill").start(schemaManager::backfillBinaryJavaIds);
+    }
+
+    /**
+     * Uses the given data source as the primary, without replicas and without checking or migrating the schema.
+     */
+    DatabaseManager(Config config, Logger logger, MetricsRegistry metrics, DataSource dataSource) {
+        var databaseConfig = config.database();
+        this.logger = logger;
+        this.metrics = metrics;
+        this.dataSource = dataSource;
+        this.javaIdFormat = databaseConfig.javaIdFormat();
+        // every pool can run maxPoolSize tasks at the same time
+        this.executor = new DatabaseExecutor(
+                databaseConfig.maxPoolSize() * (1 + databaseConfig.replicas().size()),
+                databaseConfig.maxQueuedTasks());
+        this.circuitBreaker = new CircuitBreaker(config.circuitBreaker(), logger);
+        this.pinnedToPrimary = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(databaseConfig.replicaPinSeconds()))
+                .build();
+    }
+
+    private static MariaDbPoolDataSource createPrimary(Config.Database config) {
+        try {
+            Class.forName("org.mariadb.jdbc.Driver");
+            return createDataSource(config, config.hostname(), POOL_NAME);
+        } catch (ClassNotFoundException exception) {
+            throw new RuntimeException("Cannot find required class to load the MariaDB database");
+        } catch (SQLException exception) {
+            throw new RuntimeException("Unable to set the datasource connection fields", exception);
+        }
+    }
+
+    private static MariaDbPoolDataSource createDataSource(Config.Database config, String hostname, String poolName)
+            throws SQLException {
+        String serverName;
+        int port = 3306;
+
+        var hostnameSplit = hostname.split(":");
+        if (hostnameSplit.length > 1) {
+            serverName = hostnameSplit[0];
+            port = Integer.parseInt(hostnameSplit[1]);
+        } else {
+            serverName = hostname;
+        }
+
+        var dataSource = new MariaDbPoolDataSource();
+        dataSource.setUrl(
+                "jdbc:mariadb://%s:%s/%s?%s".formatted(serverName, port, config.database(), CONNECTION_OPTIONS));
+        dataSource.setUser(config.username());
+        dataSource.setPassword(config.password());
+        dataSource.setPoolName(poolName);
+        dataSource.setMinPoolSize(1);
+        dataSource.setMaxPoolSize(config.maxPoolSize());
+        return dataSource;
+    }
+
+    private void connectionCheck() {
+        try (var connection = connection(); var statement = connection.createStatement()) {
+            try (var resultSet = statement.executeQuery("SELECT 1")) {
+                resultSet.next();
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Could not connect to database!", exception);
+        }
+    }
+
+    public Connection connection() throws SQLException {
+        long start = System.nanoTime();
+        var connection = dataSource.getConnection();
+        long waited = System.nanoTime() - start;
+        BORROW_WAIT_NANOS.get()[0] += waited;
+
+        borrows.increment();
+        totalBorrowWaitNanos.add(waited);
+        maxBorrowWaitNanos.accumulateAndGet(waited, Math::max);
+        return connection;
+    }
+
+    /**
+     * Runs the given read on the least busy healthy replica, or on the primary if there is none or if the read has to
+     * see the latest writes. A read that fails because the replica can't be reached is retried on the primary.
+     */
+    public <T> T read(boolean requirePrimary, ThrowingFunction<Connection, T> reader) throws SQLException {
+        var replica = requirePrimary ? null : selectReplica();
+        if (replica != null) {
+            replica.inFlight.incrementAndGet();
+            try (Connection connection = borrow(replica.dataSource)) {
+                return reader.apply(connection);
+            } catch (SQLTransientConnectionException | SQLNonTransientConnectionException exception) {
+                markReplica(replica, false);
+            } finally {
+                replica.inFlight.decrementAndGet();
+            }
+        }
+
+        try (Connection connection = connection()) {
+            return reader.apply(connection);
+        }
+    }
+
+    private static Connection borrow(DataSource dataSource) throws SQLException {
+        long start = System.nanoTime();
+        var connection = dataSource.getConnection();
+        BORROW_WAIT_NANOS.get()[0] += System.nanoTime() - start;
+        return connection;
+    }
+
+    private @Nullable Replica selectReplica() {
+        Replica selected = null;
+        // start at a random replica, so equally busy replicas get the same amount of reads
+        int offset = ThreadLocalRandom.current().nextInt(Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            var replica = replicas.get((offset + i) % replicas.size());
+            if (replica.healthy && (selected == null || replica.inFlight.get() < selected.inFlight.get())) {
+                selected = replica;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Checks whether the replicas can be reached. Replicas that can't be reached don't get reads until they can be
+     * reached again.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(REPLICA_CHECK_TIMEOUT_SECONDS);
+            } catch (SQLException exception) {
+                healthy = false;
+            }
+            markReplica(replica, healthy);
+        }
+    }
+
+    private void markReplica(Replica replica, boolean healthy) {
+        if (replica.healthy != healthy) {
+            replica.healthy = healthy;
+            if (healthy) {
+                logger.info("Replica %s is available again".formatted(replica.hostname));
+            } else {
+                logger.warning(
+                        "Replica %s is unavailable, reading from the primary instead".formatted(replica.hostname));
+            }
+        }
+    }
+
+    /**
+     * Makes reads for the given player go to the primary for a while, e.g. because the player just linked.
+     */
+    public void pinToPrimary(UUID uuid) {
+        if (!replicas.isEmpty()) {
+            pinnedToPrimary.put(uuid, Boolean.TRUE);
+        }
+    }
+
+    public boolean isPinnedToPrimary(UUID uuid) {
+        return pinnedToPrimary.getIfPresent(uuid) != null;
+    }
+
+    /**
+     * Prepares the given query on the given connection and counts it by the name of the query.
+     * The statement should be closed after use like any other statement, the driver keeps the prepared query around.
+     */
+    public PreparedStatement prepare(Connection connection, NamedQuery query) throws SQLException {
+        preparedStatements
+                .computeIfAbsent(
+                        query.name(),
+                        name -> metrics.counter(
+                                "db_prepared_statements_total", "Statements prepared, by query", "query", name))
+                .increment();
+        return connection.prepareStatement(query.sql());
+    }
+
+    public PoolMetrics poolMetrics() {
+        int active = -1;
+        int idle = -1;
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            // the pool registers itself as <pool name>-<pool index>
+            var pattern = new ObjectName("org.mariadb.jdbc.pool:type=" + POOL_NAME + "-*");
+            for (ObjectName name : server.queryNames(pattern, null)) {
+                active = ((Number) server.getAttribute(name, "ActiveConnections")).intValue();
+                idle = ((Number) server.getAttribute(name, "IdleConnections")).intValue();
+            }
+        } catch (JMException ignored) {
+            // the pool isn't registered, for example when JMX registration is disabled
+        }
+
+        return new PoolMetrics(
+                borrows.sum(),
+                totalBorrowWaitNanos.sum(),
+                maxBorrowWaitNanos.get(),
+                active,
+                idle,
+                executor.queuedTasks(),
+                executor.executedTasks(),
+                executor.rejectedTasks(),
+                executor.totalQueueWaitNanos(),
+                executor.maxQueueWaitNanos());
+    }
+
+    public JavaIdFormat javaIdFormat() {
+        return javaIdFormat;
+    }
+
+    /**
+     * Runs the given task on the database executor.
+     * Unlike {@link CompletableFuture#supplyAsync(Supplier, Executor)} a rejected task results in a failed future,
+     * so callers only have to handle failures in one place. While the database is unavailable the future fails
+     * right away with a {@link DatabaseUnavailableException}.
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        if (!circuitBreaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new DatabaseUnavailableException());
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> {
+                        long start = callStart();
+                        try {
+                            T result = task.get();
+                            circuitBreaker.onSuccess(callNanos(start));
+                            return result;
+                        } catch (Throwable throwable) {
+                            circuitBreaker.onFailure(callNanos(start));
+                            throw throwable;
+                        }
+                    },
+                    executor);
+        } catch (RejectedExecutionException exception) {
+            // the queue is full because of the load on this server, that doesn't say anything about the database
+            circuitBreaker.release();
+            return CompletableFuture.failedFuture(exception);
+        }
+    }
+
+    /**
+     * Wraps the given database function, so that its outcome is tracked by the circuit breaker and it throws a
+     * {@link DatabaseUnavailableException} without calling the database while the database is unavailable.
+     */
+    public <T, R> ThrowingFunction<T, R> guarded(ThrowingFunction<T, R> function) {
+        return input -> {
+            if (!circuitBreaker.tryAcquire()) {
+                throw new DatabaseUnavailableException();
+            }
+
+            long start = callStart();
+            try {
+                R result = function.apply(input);
+                circuitBreaker.onSuccess(callNanos(start));
+                return result;
+            } catch (Throwable throwable) {
+                circuitBreaker.onFailure(callNanos(start));
+                throw throwable;
+            }
+        };
+    }
+
+    /**
+     * Returns the start of a call on the current thread, as if the call had already borrowed its connections.
+     */
+    private static long callStart() {
+        return System.nanoTime() - BORROW_WAIT_NANOS.get()[0];
+    }
+
+    /**
+     * Returns how long the call that started at the given time took, without the wait for pooled connections.
+     */
+    private static long callNanos(long callStart) {
+        return System.nanoTime() - BORROW_WAIT_NANOS.get()[0] - callStart;
+    }
+
+    /**
+     * Returns whether the given error, or one of its causes, is the result of the database being unavailable.
+     */
+    public static boolean isUnavailable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DatabaseUnavailableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    public Executor executor() {
+        return executor;
+    }
+
+    private static final class Replica {
+        private final String hostname;
+        private final MariaDbPoolDataSource dataSource;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile boolean healthy = true;
+
+        private Replica(String hostname, MariaDbPoolDataSource dataSource) {
+            this.hostname = hostname;
+            this.dataSource = dataSource;
+        }
+    }
+}
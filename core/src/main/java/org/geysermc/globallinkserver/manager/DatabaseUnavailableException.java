@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.manager;
+
+import java.sql.SQLTransientException;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Thrown instead of calling the database while the {@link CircuitBreaker} is open.
+ */
+@NullMarked
+public final class DatabaseUnavailableException extends SQLTransientException {
+    public DatabaseUnavailableException() {
+        super("The database is unavailable at the moment");
+    }
+}
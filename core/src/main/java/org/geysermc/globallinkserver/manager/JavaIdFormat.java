@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.manager;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * How the java id of a link is stored, which is used to move the links table from the 36 character {@code java_id}
+ * column to the 16 byte {@code java_id_bin} column without downtime.
+ * <p>
+ * The phases are meant to be walked through in order: switch every instance to {@link #DUAL}, wait until the backfill
+ * finished, then switch the instances to {@link #BINARY} one by one. Instances on {@link #DUAL} and {@link #BINARY}
+ * can run side by side, since {@link #DUAL} finds a link by either column.
+ * <p>
+ * Dropping the string column is a separate step: once every instance and every other service that reads the links
+ * table uses the binary column, restart one instance with {@code drop-string-java-id}. Instances that still write the
+ * string column fail to write links from then on.
+ */
+@NullMarked
+public enum JavaIdFormat {
+    /**
+     * Lookups only use the string column
+     */
+    STRING,
+    /**
+     * Lookups match either column, so rows that haven't been backfilled yet are still found
+     */
+    DUAL,
+    /**
+     * Only the binary column is used, the string column is left empty until it's dropped
+     */
+    BINARY;
+
+    /**
+     * Returns the java id columns of the links table, a query that reads or writes the java id has to use all of them
+     */
+    public List<String> columns() {
+        return this == BINARY ? List.of("java_id_bin") : List.of("java_id", "java_id_bin");
+    }
+
+    /**
+     * Returns the {@link #columns()} as a column list for a query
+     */
+    public String columnList() {
+        return columns().stream().map("`%s`"::formatted).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Binds the given java id to every column of {@link #columns()}, starting at the given parameter index.
+     *
+     * @return the index of the next parameter
+     */
+    public int bindColumns(PreparedStatement statement, int index, UUID javaId) throws SQLException {
+        if (this != BINARY) {
+            statement.setString(index++, javaId.toString());
+        }
+        statement.setBytes(index++, toBytes(javaId));
+        return index;
+    }
+
+    /**
+     * Returns the condition to find the rows of the given amount of java ids, see {@link #bindJavaIds}
+     */
+    public String whereJavaIdIn(int count) {
+        String placeholders = String.join(", ", Collections.nCopies(count, "?"));
+        return switch (this) {
+            case STRING -> "`java_id` IN (%s)".formatted(placeholders);
+            case DUAL -> "(`java_id_bin` IN (%s) OR `java_id` IN (%s))".formatted(placeholders, placeholders);
+            case BINARY -> "`java_id_bin` IN (%s)".formatted(placeholders);
+        };
+    }
+
+    /**
+     * Binds the java ids of the condition returned by {@link #whereJavaIdIn}, starting at the given parameter index.
+     *
+     * @return the index of the next parameter
+     */
+    public int bindJavaIds(PreparedStatement statement, int index, List<UUID> javaIds) throws SQLException {
+        if (this != STRING) {
+            for (UUID javaId : javaIds) {
+                statement.setBytes(index++, toBytes(javaId));
+            }
+        }
+        if (this != BINARY) {
+            for (UUID javaId : javaIds) {
+                statement.setString(index++, javaId.toString());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Reads the java id of a row, the query has to select all of the {@link #columns()}
+     */
+    public UUID readJavaId(ResultSet resultSet) throws SQLException {
+        if (this != STRING) {
+            byte[] bytes = resultSet.getBytes("java_id_bin");
+            // an instance only starts with the binary format once every row has a binary java id
+            if (bytes != null || this == BINARY) {
+                return fromBytes(Objects.requireNonNull(bytes));
+            }
+        }
+        return UUID.fromString(resultSet.getString("java_id"));
+    }
+
+    public static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    public static UUID fromBytes(byte[] bytes) {
+        var buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
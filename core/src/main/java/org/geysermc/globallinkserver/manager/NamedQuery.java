@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.manager;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * A query that is declared once and prepared through
+ * {@link DatabaseManager#prepare(java.sql.Connection, NamedQuery)}, so that the prepared statement can be reused for as
+ * long as the pooled connection lives. The prepared statements are counted by the name of the query.
+ */
+@NullMarked
+public record NamedQuery(String name, String sql) {}
@@ -7,22 +7,32 @@ package org.geysermc.globallinkserver.manager;
 
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import org.bukkit.entity.Player;
+import java.util.function.Function;
 import org.geysermc.floodgate.api.FloodgateApi;
 import org.geysermc.floodgate.api.player.FloodgatePlayer;
+import org.geysermc.globallinkserver.platform.PlatformPlayer;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
 @NullMarked
 public final class PlayerManager {
     private final FloodgateApi api;
+    private final Function<UUID, @Nullable PlatformPlayer> onlinePlayers;
 
-    public PlayerManager(FloodgateApi api) {
+    /**
+     * @param onlinePlayers returns the online player with the given uuid
+     */
+    public PlayerManager(FloodgateApi api, Function<UUID, @Nullable PlatformPlayer> onlinePlayers) {
         this.api = api;
+        this.onlinePlayers = onlinePlayers;
     }
 
-    public boolean isBedrockPlayer(Player player) {
-        return api.isFloodgatePlayer(player.getUniqueId());
+    public @Nullable PlatformPlayer onlinePlayer(UUID uuid) {
+        return onlinePlayers.apply(uuid);
+    }
+
+    public boolean isBedrockPlayer(UUID uuid) {
+        return api.isFloodgatePlayer(uuid);
     }
 
     public boolean isBedrockId(UUID id) {
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.manager;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * A snapshot of the connection pool and database executor usage.
+ * The connection counts are -1 when the pool doesn't expose them.
+ */
+@NullMarked
+public record PoolMetrics(
+        long borrows,
+        long totalBorrowWaitNanos,
+        long maxBorrowWaitNanos,
+        int activeConnections,
+        int idleConnections,
+        int queuedTasks,
+        long executedTasks,
+        long rejectedTasks,
+        long totalQueueWaitNanos,
+        long maxQueueWaitNanos) {
+    public double averageBorrowWaitNanos() {
+        return borrows == 0 ? 0 : (double) totalBorrowWaitNanos / borrows;
+    }
+
+    public double averageQueueWaitNanos() {
+        return executedTasks == 0 ? 0 : (double) totalQueueWaitNanos / executedTasks;
+    }
+}
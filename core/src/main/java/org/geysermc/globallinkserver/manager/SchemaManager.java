@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.manager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Creates the tables and brings them up to date at startup.
+ * Every migration is applied once and recorded in the {@code schema_version} table, a database lock makes sure that
+ * only one instance migrates at a time.
+ * <p>
+ * Migrations have to be safe to run against a large, live table: they're only allowed to add things, and only in a way
+ * that doesn't block reads and writes. The only exception is dropping the string java id column, which is only done
+ * when asked for explicitly, see {@link JavaIdFormat}.
+ */
+@NullMarked
+public final class SchemaManager {
+    private static final String LOCK_NAME = "global_link_schema";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+    private static final int BACKFILL_CHUNK_SIZE = 1000;
+    private static final long BACKFILL_PAUSE_MILLIS = 50;
+    // UNHEX returns null for anything else, those rows can't be backfilled and are left alone
+    private static final String VALID_JAVA_ID =
+            "'^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$'";
+
+    // only applied when drop-string-java-id is set, once every instance uses the binary java id column
+    private static final Migration DROP_STRING_JAVA_ID = new Migration(
+            6,
+            "Drop string java id column",
+            "ALTER TABLE `links` DROP INDEX IF EXISTS `java_id_index`, ALGORITHM=INPLACE, LOCK=NONE;",
+            "ALTER TABLE `links` DROP COLUMN IF EXISTS `java_id`, ALGORITHM=INPLACE, LOCK=NONE;");
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(
+                    1,
+                    "Create links table",
+                    "CREATE TABLE IF NOT EXISTS `links` ("
+                            + "`bedrock_id` BIGINT NOT NULL PRIMARY KEY,"
+                            + "`java_id` VARCHAR(36) NOT NULL,"
+                            + "`java_name` VARCHAR(16) NOT NULL,"
+                            + "UNIQUE INDEX `java_id_index` (`java_id`));"),
+            new Migration(
+                    2,
+                    "Create pending_links table",
+                    "CREATE TABLE IF NOT EXISTS `pending_links` ("
+                            + "`code` SMALLINT UNSIGNED NOT NULL PRIMARY KEY,"
+                            + "`requester_uuid` VARCHAR(36) NOT NULL,"
+                            + "`requester_name` VARCHAR(32) NOT NULL,"
+                            + "`expiry_time` BIGINT NOT NULL,"
+                            + "INDEX `expiry_time_index` (`expiry_time`));"),
+            new Migration(
+                    3,
+                    "Add binary java id column",
+                    // adding a nullable column at the end is an instant operation
+                    "ALTER TABLE `links` ADD COLUMN IF NOT EXISTS `java_id_bin` BINARY(16) NULL;",
+                    "ALTER TABLE `links` ADD UNIQUE INDEX IF NOT EXISTS `java_id_bin_index` (`java_id_bin`), "
+                            + "ALGORITHM=INPLACE, LOCK=NONE;"),
+            new Migration(
+                    4,
+                    "Create gamertags table",
+                    "CREATE TABLE IF NOT EXISTS `gamertags` ("
+                            + "`xuid` BIGINT NOT NULL PRIMARY KEY,"
+                            + "`gamertag` VARCHAR(16) NOT NULL,"
+                            + "`updated_at` BIGINT NOT NULL);"),
+            new Migration(
+                    5,
+                    "Allow links without string java id",
+                    // instances on the binary format only write the binary column, next to the ones that write both
+                    "ALTER TABLE `links` MODIFY COLUMN `java_id` VARCHAR(36) NULL, ALGORITHM=INPLACE, LOCK=NONE;"),
+            DROP_STRING_JAVA_ID);
+
+    private final DatabaseManager database;
+    private final Logger logger;
+    private final boolean dropStringJavaId;
+    // the columns that have to be the first column of an index
+    private final Map<String, List<String>> requiredIndexes;
+
+    public SchemaManager(DatabaseManager database, Logger logger, boolean dropStringJavaId) {
+        if (dropStringJavaId && database.javaIdFormat() != JavaIdFormat.BINARY) {
+            throw new IllegalStateException("drop-string-java-id can only be set when java-id-format is 'binary'");
+        }
+        this.database = database;
+        this.logger = logger;
+        this.dropStringJavaId = dropStringJavaId;
+        var linkColumns = new ArrayList<>(database.javaIdFormat().columns());
+        linkColumns.add("bedrock_id");
+        this.requiredIndexes = Map.of(
+                "links", linkColumns,
+                "pending_links", List.of("code", "expiry_time"),
+                "gamertags", List.of("xuid"));
+    }
+
+    public void migrate() {
+        try (Connection connection = database.connection(); Statement statement = connection.createStatement()) {
+            acquireLock(statement);
+            try {
+                statement.executeUpdate("CREATE TABLE IF NOT EXISTS `schema_version` ("
+                        + "`version` INT NOT NULL PRIMARY KEY,"
+                        + "`description` VARCHAR(255) NOT NULL,"
+                        + "`applied_at` BIGINT NOT NULL);");
+
+                int currentVersion = currentVersion(statement);
+                for (Migration migration : MIGRATIONS) {
+                    if (migration.version() <= currentVersion) {
+                        continue;
+                    }
+                    if (migration == DROP_STRING_JAVA_ID) {
+                        // every instance has to be on the binary format by now, that's up to whoever set the option
+                        if (!dropStringJavaId) {
+                            break;
+                        }
+                        requireBinaryJavaIds(statement);
+                    }
+
+                    logger.info("Migrating database schema to version %s: %s"
+                            .formatted(migration.version(), migration.description()));
+                    for (String sql : migration.statements()) {
+                        statement.executeUpdate(sql);
+                    }
+                    recordMigration(connection, migration);
+                    currentVersion = migration.version();
+                }
+
+                if (database.javaIdFormat() == JavaIdFormat.BINARY) {
+                    if (currentVersion < DROP_STRING_JAVA_ID.version()) {
+                        requireBinaryJavaIds(statement);
+                    }
+                } else if (currentVersion >= DROP_STRING_JAVA_ID.version()) {
+                    throw new IllegalStateException(
+                            "The string java id column has been dropped, java-id-format has to be 'binary'");
+                }
+            } finally {
+                statement.execute("DO RELEASE_LOCK('%s');".formatted(LOCK_NAME));
+            }
+
+            verify(statement);
+        } catch (SQLException exception) {
+            throw new RuntimeException("Could not migrate the database schema", exception);
+        }
+    }
+
+    /**
+     * The binary format only reads the binary column, so every link has to have a binary java id. Otherwise those links
+     * couldn't be read, and would be lost once the string column is dropped.
+     */
+    private void requireBinaryJavaIds(Statement statement) throws SQLException {
+        try (ResultSet resultSet =
+                statement.executeQuery("SELECT COUNT(*) FROM `links` WHERE `java_id_bin` IS NULL;")) {
+            long missing = resultSet.next() ? resultSet.getLong(1) : 0;
+            if (missing > 0) {
+                throw new IllegalStateException(("%s links don't have a binary java id yet. Keep java-id-format on "
+                                + "'dual' until the backfill finished, links with an invalid java id have to be fixed "
+                                + "or removed by hand")
+                        .formatted(missing));
+            }
+        }
+    }
+
+    private void acquireLock(Statement statement) throws SQLException {
+        try (ResultSet resultSet =
+                statement.executeQuery("SELECT GET_LOCK('%s', %s);".formatted(LOCK_NAME, LOCK_TIMEOUT_SECONDS))) {
+            if (!resultSet.next() || resultSet.getInt(1) != 1) {
+                throw new SQLException("Timed out waiting for another instance to migrate the database schema");
+            }
+        }
+    }
+
+    private int currentVersion(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT MAX(`version`) FROM `schema_version`;")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    private void recordMigration(Connection connection, Migration migration) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(
+                "INSERT INTO `schema_version` (`version`, `description`, `applied_at`) VALUES (?, ?, ?);")) {
+            query.setInt(1, migration.version());
+            query.setString(2, migration.description());
+            query.setLong(3, System.currentTimeMillis());
+            query.executeUpdate();
+        }
+    }
+
+    private void verify(Statement statement) throws SQLException {
+        for (var entry : requiredIndexes.entrySet()) {
+            Set<String> indexedColumns = new HashSet<>();
+            try (ResultSet resultSet = statement.executeQuery("SHOW INDEX FROM `%s`;".formatted(entry.getKey()))) {
+                while (resultSet.next()) {
+                    if (resultSet.getInt("Seq_in_index") == 1) {
+                        indexedColumns.add(resultSet.getString("Column_name"));
+                    }
+                }
+            }
+
+            for (String column : entry.getValue()) {
+                if (!indexedColumns.contains(column)) {
+                    throw new IllegalStateException(
+                            "Column %s of table %s isn't indexed".formatted(column, entry.getKey()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Fills the binary java id column of the rows that don't have it yet, in small chunks so the table stays available.
+     * Every instance runs this at startup, running it concurrently is harmless.
+     */
+    public void backfillBinaryJavaIds() {
+        // every link has a binary java id before the string column is dropped
+        if (database.javaIdFormat() == JavaIdFormat.BINARY) {
+            return;
+        }
+
+        try (Connection connection = database.connection();
+                PreparedStatement query = connection.prepareStatement(
+                        "UPDATE `links` SET `java_id_bin` = UNHEX(REPLACE(`java_id`, '-', '')) "
+                                + "WHERE `java_id_bin` IS NULL AND `java_id` REGEXP " + VALID_JAVA_ID + " LIMIT ?;")) {
+            query.setInt(1, BACKFILL_CHUNK_SIZE);
+
+            long migrated = 0;
+            int updated;
+            do {
+                updated = query.executeUpdate();
+                migrated += updated;
+                Thread.sleep(BACKFILL_PAUSE_MILLIS);
+            } while (updated > 0);
+
+            if (migrated > 0) {
+                logger.info("Backfilled the binary java id of %s links".formatted(migrated));
+            }
+            warnAboutInvalidJavaIds(connection);
+        } catch (SQLException exception) {
+            throw new RuntimeException("Error while backfilling binary java ids", exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void warnAboutInvalidJavaIds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet =
+                        statement.executeQuery("SELECT COUNT(*) FROM `links` WHERE `java_id_bin` IS NULL;")) {
+            long invalid = resultSet.next() ? resultSet.getLong(1) : 0;
+            if (invalid > 0) {
+                logger.warning("%s links have an invalid java id and can't get a binary java id, fix or remove them"
+                        .formatted(invalid));
+            }
+        }
+    }
+
+    private record Migration(int version, String description, String... statements) {}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * A latency histogram with fixed buckets, in seconds.
+ */
+@NullMarked
+public final class Histogram {
+    static final double[] BUCKETS = {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+    private static final long[] BUCKET_NANOS = new long[BUCKETS.length];
+
+    static {
+        for (int i = 0; i < BUCKETS.length; i++) {
+            BUCKET_NANOS[i] = (long) (BUCKETS[i] * 1_000_000_000L);
+        }
+    }
+
+    // the last bucket is +Inf
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS.length + 1);
+    private final LongAdder sumNanos = new LongAdder();
+
+    Histogram() {}
+
+    public void observeNanos(long nanos) {
+        int bucket = 0;
+        while (bucket < BUCKET_NANOS.length && nanos > BUCKET_NANOS[bucket]) {
+            bucket++;
+        }
+        counts.incrementAndGet(bucket);
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * Records the time that has passed since the given {@link System#nanoTime()}.
+     */
+    public void observeSince(long startNanos) {
+        observeNanos(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns the cumulative count of every bucket, the last one being +Inf.
+     */
+    long[] cumulativeCounts() {
+        long[] cumulative = new long[counts.length()];
+        long total = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            total += counts.get(i);
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    double sumSeconds() {
+        return sumNanos.sum() / 1_000_000_000D;
+    }
+}
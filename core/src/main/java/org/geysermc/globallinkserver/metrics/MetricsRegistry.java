@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Holds every metric of the plugin and renders them in the Prometheus text format.
+ * Labels are passed as alternating names and values, e.g. {@code counter("x", "help", "result", "success")}.
+ * Asking for a metric that has already been registered with the same labels returns the existing metric.
+ */
+@NullMarked
+public final class MetricsRegistry {
+    private static final String PREFIX = "globallink_";
+
+    private final Map<String, Family> families = new LinkedHashMap<>();
+    private final List<Runnable> scrapeListeners = new ArrayList<>();
+
+    public synchronized Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, "counter").series.computeIfAbsent(labels(labels), key -> new Counter());
+    }
+
+    public synchronized Histogram histogram(String name, String help, String... labels) {
+        return (Histogram)
+                family(name, help, "histogram").series.computeIfAbsent(labels(labels), key -> new Histogram());
+    }
+
+    /**
+     * Registers a gauge whose value is read every time the metrics are scraped.
+     */
+    public synchronized void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, "gauge").series.put(labels(labels), value);
+    }
+
+    /**
+     * Registers a counter that is kept by something else, whose value is read every time the metrics are scraped.
+     */
+    public synchronized void counterFunction(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, "counter").series.put(labels(labels), value);
+    }
+
+    /**
+     * Registers a listener that is called before the metrics are rendered, e.g. to take a snapshot that multiple
+     * gauges read from.
+     */
+    public synchronized void onScrape(Runnable listener) {
+        scrapeListeners.add(listener);
+    }
+
+    public synchronized String scrape() {
+        for (Runnable listener : scrapeListeners) {
+            listener.run();
+        }
+
+        var builder = new StringBuilder();
+        families.forEach((name, family) -> {
+            builder.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            builder.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+            family.series.forEach((labels, metric) -> writeSeries(builder, name, labels, metric));
+        });
+        return builder.toString();
+    }
+
+    private void writeSeries(StringBuilder builder, String name, String labels, Object metric) {
+        switch (metric) {
+            case Counter counter -> writeSample(builder, name, labels, counter.value());
+            case DoubleSupplier supplier -> writeSample(builder, name, labels, supplier.getAsDouble());
+            case Histogram histogram -> {
+                long[] counts = histogram.cumulativeCounts();
+                for (int i = 0; i < counts.length; i++) {
+                    var bound = i < Histogram.BUCKETS.length ? Double.toString(Histogram.BUCKETS[i]) : "+Inf";
+                    writeSample(builder, name + "_bucket", withLabel(labels, "le", bound), counts[i]);
+                }
+                writeSample(builder, name + "_sum", labels, histogram.sumSeconds());
+                writeSample(builder, name + "_count", labels, counts[counts.length - 1]);
+            }
+            default -> throw new IllegalStateException("Unknown metric " + metric);
+        }
+    }
+
+    private static void writeSample(StringBuilder builder, String name, String labels, double value) {
+        builder.append(name);
+        if (!labels.isEmpty()) {
+            builder.append('{').append(labels).append('}');
+        }
+        builder.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            builder.append((long) value);
+        } else {
+            builder.append(value);
+        }
+        builder.append('\n');
+    }
+
+    private Family family(String name, String help, String type) {
+        var family = families.computeIfAbsent(PREFIX + name, key -> new Family(help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Metric %s is already registered as a %s".formatted(name, family.type));
+        }
+        return family;
+    }
+
+    private static String labels(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels have to be passed as name and value pairs");
+        }
+
+        var builder = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            builder.append(builder.isEmpty() ? "" : ",")
+                    .append(labels[i])
+                    .append("=\"")
+                    .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\""))
+                    .append('"');
+        }
+        return builder.toString();
+    }
+
+    private static String withLabel(String labels, String name, String value) {
+        var label = labels(name, value);
+        return labels.isEmpty() ? label : labels + "," + label;
+    }
+
+    private record Family(String help, String type, Map<String, Object> series) {
+        private Family(String help, String type) {
+            this(help, type, new LinkedHashMap<>());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.platform;
+
+import java.net.InetAddress;
+import java.util.UUID;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An online player of the platform the link server runs on, e.g. a Paper server or a Velocity proxy.
+ * Messages are sent through the {@link Audience} methods.
+ */
+@NullMarked
+public interface PlatformPlayer extends Audience {
+    UUID uniqueId();
+
+    String name();
+
+    /**
+     * Returns the address the player connected from, or null if it isn't known.
+     */
+    @Nullable InetAddress address();
+
+    /**
+     * Disconnects the player with the given reason.
+     */
+    void kick(Component reason);
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.platform;
+
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Runs the periodic tasks of the link server with the scheduler of the platform it runs on.
+ */
+@NullMarked
+public interface PlatformScheduler {
+    /**
+     * Runs the given task on the main thread every period, starting after the given delay.
+     */
+    void repeat(Runnable task, long delay, long period, TimeUnit unit);
+
+    /**
+     * Runs the given task every period on a thread that is allowed to block, starting after the given delay.
+     */
+    void repeatAsync(Runnable task, long delay, long period, TimeUnit unit);
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.LongFunction;
+import org.geysermc.globallinkserver.config.Config;
+import org.geysermc.globallinkserver.manager.DatabaseManager;
+import org.geysermc.globallinkserver.manager.NamedQuery;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Resolves the gamertag of a xuid without having to ask the global api every time.
+ * Gamertags are stored when a link is created and whenever they are fetched from the global api. Known gamertags are
+ * kept in memory and once they're older than the refresh interval, the stale gamertag is still returned while a fresh
+ * one is fetched in the background. The same goes for a stored gamertag that was last updated before that.
+ * Concurrent requests for the same xuid share a single load.
+ */
+@NullMarked
+public final class GamertagService {
+    private static final NamedQuery FIND_QUERY =
+            new NamedQuery("find_gamertag", "SELECT `gamertag`, `updated_at` FROM `gamertags` WHERE `xuid` = ?;");
+    private static final NamedQuery STORE_QUERY = new NamedQuery(
+            "store_gamertag",
+            "INSERT INTO `gamertags` (`xuid`, `gamertag`, `updated_at`) VALUES (?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE "
+                    + "`gamertag` = VALUES(`gamertag`),"
+                    + "`updated_at` = VALUES(`updated_at`);");
+
+    private final DatabaseManager database;
+    private final LongFunction<CompletableFuture<@Nullable String>> remoteLookup;
+    private final AsyncLoadingCache<Long, String> gamertags;
+    private final long refreshAfterMillis;
+
+    /**
+     * @param remoteLookup fetches the current gamertag of a xuid, normally from the global api
+     */
+    public GamertagService(
+            DatabaseManager database,
+            LongFunction<CompletableFuture<@Nullable String>> remoteLookup,
+            Config.GamertagCache cacheConfig) {
+        this.database = database;
+        this.remoteLookup = remoteLookup;
+        this.refreshAfterMillis = Duration.ofSeconds(cacheConfig.refreshAfterSeconds()).toMillis();
+        this.gamertags = Caffeine.newBuilder()
+                .maximumSize(cacheConfig.maximumSize())
+                .refreshAfterWrite(Duration.ofSeconds(cacheConfig.refreshAfterSeconds()))
+                .buildAsync(new Loader());
+    }
+
+    /**
+     * Returns the gamertag of the given xuid, or null if it's unknown both locally and to the global api.
+     */
+    public CompletableFuture<@Nullable String> gamertagFor(long xuid) {
+        return gamertags.get(xuid);
+    }
+
+    /**
+     * Stores the gamertag of a player that is known to be current, e.g. because the player just linked.
+     */
+    public void remember(long xuid, String gamertag) {
+        gamertags.put(xuid, CompletableFuture.completedFuture(gamertag));
+        store(xuid, gamertag);
+    }
+
+    private @Nullable StoredGamertag findStored(long xuid) {
+        try {
+            return database.read(false, connection -> {
+                try (PreparedStatement query = database.prepare(connection, FIND_QUERY)) {
+                    query.setLong(1, xuid);
+                    try (ResultSet result = query.executeQuery()) {
+                        if (!result.next()) {
+                            return null;
+                        }
+                        return new StoredGamertag(result.getString("gamertag"), result.getLong("updated_at"));
+                    }
+                }
+            });
+        } catch (SQLException exception) {
+            throw new CompletionException("Error while looking up gamertag", exception);
+        }
+    }
+
+    private void store(long xuid, String gamertag) {
+        database.supplyAsync(() -> {
+                    try (Connection connection = database.connection();
+                            PreparedStatement query = database.prepare(connection, STORE_QUERY)) {
+                        query.setLong(1, xuid);
+                        query.setString(2, gamertag);
+                        query.setLong(3, System.currentTimeMillis());
+                        return query.executeUpdate();
+                    } catch (SQLException exception) {
+                        throw new CompletionException("Error while storing gamertag", exception);
+                    }
+                })
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        error.printStackTrace();
+                    }
+                });
+    }
+
+    private CompletableFuture<@Nullable String> fetchRemote(long xuid) {
+        return remoteLookup.apply(xuid).thenApply(gamertag -> {
+            if (gamertag != null) {
+                store(xuid, gamertag);
+            }
+            return gamertag;
+        });
+    }
+
+    private final class Loader implements AsyncCacheLoader<Long, String> {
+        @Override
+        public CompletableFuture<? extends String> asyncLoad(Long xuid, Executor executor) {
+            return database.supplyAsync(() -> findStored(xuid)).thenCompose(stored -> {
+                if (stored == null) {
+                    return fetchRemote(xuid);
+                }
+
+                if (System.currentTimeMillis() - stored.updatedAt() >= refreshAfterMillis) {
+                    refreshStale(xuid, executor);
+                }
+                return CompletableFuture.completedFuture(stored.gamertag());
+            });
+        }
+
+        /**
+         * Replaces the stale gamertag that is being loaded once the global api returned a fresh one. That happens on
+         * the given executor, since the load itself might still be running.
+         */
+        private void refreshStale(long xuid, Executor executor) {
+            fetchRemote(xuid).whenCompleteAsync(
+                    (gamertag, error) -> {
+                        // otherwise the stale gamertag is kept, like when reloading
+                        if (gamertag != null) {
+                            gamertags.put(xuid, CompletableFuture.completedFuture(gamertag));
+                        }
+                    },
+                    executor);
+        }
+
+        @Override
+        public CompletableFuture<? extends String> asyncReload(Long xuid, String oldValue, Executor executor) {
+            // keep serving the gamertag we have when the global api can't give us a new one
+            return fetchRemote(xuid).handle((gamertag, error) -> gamertag != null ? gamertag : oldValue);
+        }
+    }
+
+    private record StoredGamertag(String gamertag, long updatedAt) {}
+}
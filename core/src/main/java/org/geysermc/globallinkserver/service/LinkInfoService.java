@@ -5,10 +5,10 @@
  */
 package org.geysermc.globallinkserver.service;
 
-import org.bukkit.entity.Player;
 import org.geysermc.globallinkserver.Components;
 import org.geysermc.globallinkserver.link.FullLink;
 import org.geysermc.globallinkserver.manager.PlayerManager;
+import org.geysermc.globallinkserver.platform.PlatformPlayer;
 import org.jspecify.annotations.NullMarked;
 
 @NullMarked
@@ -21,15 +21,15 @@ public final class LinkInfoService {
         this.playerManager = playerManager;
     }
 
-    public void sendCurrentLinkInfo(Player player) {
-        FullLink link = linkLookupService.cachedLookup(player);
+    public void sendCurrentLinkInfo(PlatformPlayer player) {
+        FullLink link = linkLookupService.cachedLookup(player.uniqueId());
         if (link == null) {
             player.sendMessage(Components.INFO_NOT_LINKED);
             return;
         }
 
         // Show info from the opposite platform
-        if (playerManager.isBedrockPlayer(player)) {
+        if (playerManager.isBedrockPlayer(player.uniqueId())) {
             player.sendMessage(Components.infoLinkInfo(link.javaUsername(), link.javaId(), false));
         } else {
             player.sendMessage(Components.infoLinkInfo(link.bedrockUsername(), link.bedrockId(), true));
@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import org.geysermc.globallinkserver.config.Config;
+import org.geysermc.globallinkserver.link.FullLink;
+import org.geysermc.globallinkserver.manager.DatabaseManager;
+import org.geysermc.globallinkserver.manager.NamedQuery;
+import org.geysermc.globallinkserver.manager.PlayerManager;
+import org.geysermc.globallinkserver.metrics.Histogram;
+import org.geysermc.globallinkserver.metrics.MetricsRegistry;
+import org.geysermc.globallinkserver.util.MicroBatcher;
+import org.geysermc.globallinkserver.util.ThrowingConsumer;
+import org.geysermc.globallinkserver.util.ThrowingFunction;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+@NullMarked
+public final class LinkLookupService {
+    private static final int LOOKUP_BATCH_SIZE = 100;
+    private static final long LOOKUP_BATCH_DELAY_MILLIS = 5;
+
+    private final PlayerManager playerManager;
+    private final DatabaseManager database;
+    private final GamertagService gamertagService;
+
+    // written from the database threads and read from the main thread
+    private final Map<UUID, LookupResult> onlineResults = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<@Nullable FullLink>> lookupsInProcess = new ConcurrentHashMap<>();
+    // lookups of players that are still logging in, written from the login threads
+    private final Map<UUID, CompletableFuture<@Nullable FullLink>> prefetches = new ConcurrentHashMap<>();
+    // players tend to rejoin shortly after leaving (e.g. after linking or to switch platforms), so the result of a
+    // player that left is kept around for a while
+    private final Cache<UUID, LookupResult> recentResults;
+    // when a lot of players join at once (e.g. after a restart) their lookups are combined into a few queries
+    private final MicroBatcher<UUID, @Nullable Long> javaLinkLookups;
+    private final MicroBatcher<Long, @Nullable JavaLink> bedrockLinkLookups;
+
+    private final Histogram javaLookupTime;
+    private final Histogram bedrockLookupTime;
+    private final Histogram databaseTime;
+    private final Histogram gamertagTime;
+
+    // the lookup queries for every size a batch is padded to, by that size
+    private final Map<Integer, NamedQuery> findXuidsQueries;
+    private final Map<Integer, NamedQuery> findJavaLinksQueries;
+
+    private final List<Consumer<UUID>> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    public LinkLookupService(
+            PlayerManager playerManager,
+            DatabaseManager database,
+            GamertagService gamertagService,
+            Config.LinkCache cacheConfig,
+            MetricsRegistry metrics) {
+        this.playerManager = playerManager;
+        this.database = database;
+        this.gamertagService = gamertagService;
+
+        var javaIdFormat = database.javaIdFormat();
+        this.findXuidsQueries = bucketQueries(
+                "find_xuids",
+                size -> "SELECT %s, `bedrock_id` FROM `links` WHERE %s"
+                        .formatted(javaIdFormat.columnList(), javaIdFormat.whereJavaIdIn(size)));
+        this.findJavaLinksQueries = bucketQueries(
+                "find_java_links",
+                size -> "SELECT `bedrock_id`, %s, `java_name` FROM `links` WHERE `bedrock_id` IN (%s)"
+                        .formatted(javaIdFormat.columnList(), String.join(", ", Collections.nCopies(size, "?"))));
+        this.recentResults = Caffeine.newBuilder()
+                .maximumSize(cacheConfig.maximumSize())
+                .expireAfterWrite(Duration.ofSeconds(cacheConfig.retentionSeconds()))
+                .build();
+        this.javaLinkLookups = new MicroBatcher<>(
+                LOOKUP_BATCH_SIZE, LOOKUP_BATCH_DELAY_MILLIS, database.executor(), database.guarded(this::findXuids));
+        this.bedrockLinkLookups = new MicroBatcher<>(
+                LOOKUP_BATCH_SIZE,
+                LOOKUP_BATCH_DELAY_MILLIS,
+                database.executor(),
+                database.guarded(this::findJavaLinks));
+
+        String lookupHelp = "Time it took to look up the link of a joining player that wasn't cached";
+        this.javaLookupTime = metrics.histogram("lookup_seconds", lookupHelp, "platform", "java");
+        this.bedrockLookupTime = metrics.histogram("lookup_seconds", lookupHelp, "platform", "bedrock");
+        this.databaseTime =
+                metrics.histogram("lookup_database_seconds", "Time spent on the queries of batched link lookups");
+        this.gamertagTime =
+                metrics.histogram("lookup_gamertag_seconds", "Time spent resolving the gamertag of a linked player");
+    }
+
+    /**
+     * Returns whether the link of the given player is known. This is not the case while the lookup is in process or
+     * when the lookup failed, e.g. because the database is unavailable.
+     */
+    public boolean isLookupCompleted(UUID uuid) {
+        return onlineResults.containsKey(uuid);
+    }
+
+    public @Nullable FullLink cachedLookup(UUID uuid) {
+        var result = onlineResults.get(uuid);
+        return result != null ? result.link() : null;
+    }
+
+    public boolean isLinkedCached(UUID uuid) {
+        return cachedLookup(uuid) != null;
+    }
+
+    /**
+     * Looks up the link of the given player and caches the result.
+     * Concurrent lookups for the same player share a single query, which includes the {@link #prefetch prefetch}.
+     */
+    public CompletableFuture<@Nullable FullLink> lookup(UUID uuid, String name) {
+        var recentResult = recentResults.getIfPresent(uuid);
+        if (recentResult != null) {
+            onlineResults.put(uuid, recentResult);
+            return CompletableFuture.completedFuture(recentResult.link());
+        }
+
+        var inProcess = lookupsInProcess.get(uuid);
+        if (inProcess != null) {
+            return inProcess;
+        }
+
+        var future = new CompletableFuture<@Nullable FullLink>();
+        inProcess = lookupsInProcess.putIfAbsent(uuid, future);
+        if (inProcess != null) {
+            return inProcess;
+        }
+
+        // the player joined while the lookup that was started during the login is still in process
+        var prefetch = prefetches.get(uuid);
+        var query = prefetch != null ? prefetch : query(uuid, name);
+
+        query.whenComplete((link, throwable) -> {
+            LookupResult result = null;
+            if (throwable == null) {
+                // update the cache before marking the lookup as completed, so readers never see a missing link
+                result = new LookupResult(link);
+                onlineResults.put(uuid, result);
+            }
+
+            // the lookup has been invalidated in the meantime, e.g. because the player left
+            if (!lookupsInProcess.remove(uuid, future) && result != null) {
+                onlineResults.remove(uuid, result);
+            }
+
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+            } else {
+                future.complete(link);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Starts looking up the link of a player that is still logging in, so the link is usually known by the time the
+     * player joins. Can be called from any thread. The result only ends up with the players that left recently, so a
+     * player that never finishes logging in isn't kept around. The lookup on join picks up the result.
+     */
+    public void prefetch(UUID uuid, String name) {
+        if (onlineResults.containsKey(uuid)
+                || lookupsInProcess.containsKey(uuid)
+                || recentResults.getIfPresent(uuid) != null) {
+            return;
+        }
+        // Floodgate didn't get the data of this Bedrock player yet, it would be looked up as a Java player
+        if (playerManager.isBedrockId(uuid) && playerManager.bedrockPlayer(uuid) == null) {
+            return;
+        }
+
+        var future = new CompletableFuture<@Nullable FullLink>();
+        if (prefetches.putIfAbsent(uuid, future) != null) {
+            return;
+        }
+
+        query(uuid, name).whenComplete((link, throwable) -> {
+            LookupResult result = null;
+            if (throwable == null) {
+                result = new LookupResult(link);
+                recentResults.put(uuid, result);
+            }
+
+            // the prefetch has been invalidated in the meantime, e.g. because the player linked on another instance
+            if (!prefetches.remove(uuid, future) && result != null) {
+                recentResults.asMap().remove(uuid, result);
+            }
+
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+            } else {
+                future.complete(link);
+            }
+        });
+    }
+
+    /**
+     * Should be called when the player leaves.
+     * A completed lookup is kept for a while, so it doesn't have to be looked up again when the player rejoins.
+     */
+    public void release(UUID uuid) {
+        lookupsInProcess.remove(uuid);
+
+        var result = onlineResults.remove(uuid);
+        if (result != null) {
+            recentResults.put(uuid, result);
+        }
+    }
+
+    /**
+     * Drops everything that is known about the link of the given player, e.g. because the player linked or unlinked.
+     * The next lookups of the player are done on the primary, so they can't return the old link from a lagging replica.
+     */
+    public void invalidate(UUID uuid) {
+        database.pinToPrimary(uuid);
+        prefetches.remove(uuid);
+        lookupsInProcess.remove(uuid);
+        onlineResults.remove(uuid);
+        recentResults.invalidate(uuid);
+        for (var listener : invalidationListeners) {
+            listener.accept(uuid);
+        }
+    }
+
+    /**
+     * Calls the given listener whenever a player is {@link #invalidate invalidated}, on the thread that invalidated it.
+     */
+    public void onInvalidate(Consumer<UUID> listener) {
+        invalidationListeners.add(listener);
+    }
+
+    private CompletableFuture<@Nullable FullLink> query(UUID uuid, String name) {
+        long startNanos = System.nanoTime();
+        CompletableFuture<@Nullable FullLink> query;
+        Histogram lookupTime;
+        var floodgatePlayer = playerManager.bedrockPlayer(uuid);
+        if (floodgatePlayer != null) {
+            query = findBedrockLink(uuid, floodgatePlayer.getUsername());
+            lookupTime = bedrockLookupTime;
+        } else {
+            query = findJavaLink(uuid, name);
+            lookupTime = javaLookupTime;
+        }
+        return query.whenComplete(($, throwable) -> lookupTime.observeSince(startNanos));
+    }
+
+    public CompletableFuture<@Nullable FullLink> findJavaLink(UUID javaId, String javaName) {
+        return javaLinkLookups.submit(javaId).thenCompose(xuid -> {
+            if (xuid == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            long startNanos = System.nanoTime();
+            return gamertagService.gamertagFor(xuid).thenApply(gamertag -> {
+                gamertagTime.observeSince(startNanos);
+                return new FullLink(new UUID(0, xuid), gamertag, javaId, javaName);
+            });
+        });
+    }
+
+    public CompletableFuture<@Nullable FullLink> findBedrockLink(UUID bedrockId, String gamertag) {
+        return bedrockLinkLookups.submit(bedrockId.getLeastSignificantBits()).thenApply(javaLink -> {
+            if (javaLink == null) {
+                return null;
+            }
+            return new FullLink(bedrockId, gamertag, javaLink.javaId(), javaLink.javaName());
+        });
+    }
+
+    private List<@Nullable Long> findXuids(List<UUID> javaIds) throws SQLException {
+        var javaIdFormat = database.javaIdFormat();
+        var paddedIds = padToBucket(javaIds);
+        return attemptFindLinks(
+                findXuidsQueries.get(paddedIds.size()),
+                stmt -> javaIdFormat.bindJavaIds(stmt, 1, paddedIds),
+                javaIds.stream().anyMatch(database::isPinnedToPrimary),
+                javaIds,
+                javaIdFormat::readJavaId,
+                resultSet -> resultSet.getLong("bedrock_id"));
+    }
+
+    private List<@Nullable JavaLink> findJavaLinks(List<Long> xuids) throws SQLException {
+        var javaIdFormat = database.javaIdFormat();
+        var paddedXuids = padToBucket(xuids);
+        return attemptFindLinks(
+                findJavaLinksQueries.get(paddedXuids.size()),
+                stmt -> {
+                    for (int i = 0; i < paddedXuids.size(); i++) {
+                        stmt.setLong(i + 1, paddedXuids.get(i));
+                    }
+                },
+                xuids.stream().anyMatch(xuid -> database.isPinnedToPrimary(new UUID(0, xuid))),
+                xuids,
+                resultSet -> resultSet.getLong("bedrock_id"),
+                resultSet -> new JavaLink(javaIdFormat.readJavaId(resultSet), resultSet.getString("java_name")));
+    }
+
+    /**
+     * Declares the query for every size {@link #padToBucket} pads to, the name of a query ends with its size.
+     */
+    private static Map<Integer, NamedQuery> bucketQueries(String name, IntFunction<String> sql) {
+        Map<Integer, NamedQuery> queries = new HashMap<>();
+        for (int size = 1; ; size = Math.min(size << 1, LOOKUP_BATCH_SIZE)) {
+            queries.put(size, new NamedQuery(name + "_" + size, sql.apply(size)));
+            if (size == LOOKUP_BATCH_SIZE) {
+                return Map.copyOf(queries);
+            }
+        }
+    }
+
+    /**
+     * Pads the keys to a few fixed sizes by repeating the last key, so that only a handful of distinct queries have to
+     * be prepared instead of one for every batch size.
+     */
+    private static <K> List<K> padToBucket(List<K> keys) {
+        int size = keys.size();
+        int bucketSize = size <= 1 ? 1 : Math.min(Integer.highestOneBit(size - 1) << 1, LOOKUP_BATCH_SIZE);
+        if (bucketSize <= size) {
+            return keys;
+        }
+
+        List<K> padded = new ArrayList<>(bucketSize);
+        padded.addAll(keys);
+        while (padded.size() < bucketSize) {
+            padded.add(keys.get(size - 1));
+        }
+        return padded;
+    }
+
+    /**
+     * Looks up the links of all the given keys with a single query.
+     * The result of every key is at the same index as the key, or null if the key isn't linked.
+     */
+    private <K, T> List<@Nullable T> attemptFindLinks(
+            NamedQuery query,
+            ThrowingConsumer<PreparedStatement> parameterSetter,
+            boolean requirePrimary,
+            List<K> keys,
+            ThrowingFunction<ResultSet, K> keyProcessor,
+            ThrowingFunction<ResultSet, T> resultProcessor)
+            throws SQLException {
+        long startNanos = System.nanoTime();
+        Map<K, T> links = database.read(requirePrimary, connection -> {
+            Map<K, T> found = new HashMap<>();
+            try (PreparedStatement queryStmt = database.prepare(connection, query)) {
+                parameterSetter.accept(queryStmt);
+
+                try (ResultSet resultSet = queryStmt.executeQuery()) {
+                    while (resultSet.next()) {
+                        found.put(keyProcessor.apply(resultSet), resultProcessor.apply(resultSet));
+                    }
+                }
+            }
+            return found;
+        });
+        databaseTime.observeSince(startNanos);
+
+        List<@Nullable T> results = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            results.add(links.get(key));
+        }
+        return results;
+    }
+
+    private record JavaLink(UUID javaId, String javaName) {}
+
+    private record LookupResult(@Nullable FullLink link) {}
+}
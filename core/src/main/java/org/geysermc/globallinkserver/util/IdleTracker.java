@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.util;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Keeps track of keys that are removed once they have been idle for a while.
+ * Every key is queued by the earliest moment it can become idle, so a {@link #tick()} only visits the keys whose
+ * deadline has passed instead of every key.
+ * <p>
+ * Every key gets a slot when it's added, and activity is a plain store of the current tick's time into the slot of the
+ * key. The deadline is moved when the tick finds that the key has been active since it was queued, so frequent
+ * activity (like movement) doesn't allocate, box or lock.
+ * <p>
+ * This class is not thread safe. It's meant to be used from the main thread only, which is where the join, quit and
+ * move events are called and where the tick is scheduled.
+ */
+@NullMarked
+public final class IdleTracker<K> {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final long idleMillis;
+    private final long recheckMillis;
+    private final Consumer<K> idleListener;
+    private final List<Object2BooleanFunction<K>> conditions = new ArrayList<>();
+
+    private final Object2IntMap<K> slots = new Object2IntOpenHashMap<>();
+    private final IntArrayList freeSlots = new IntArrayList();
+    private Object[] keys = new Object[INITIAL_CAPACITY];
+    private long[] lastActivity = new long[INITIAL_CAPACITY];
+    // incremented when a slot is released, so deadlines of the previous owner of the slot can be recognised
+    private int[] generations = new int[INITIAL_CAPACITY];
+    private int usedSlots;
+
+    private final PriorityQueue<Deadline> deadlines = new PriorityQueue<>(Comparator.comparingLong(Deadline::at));
+    // only updated once per tick, so recording activity doesn't have to ask the system for the time
+    private long now = System.currentTimeMillis();
+
+    /**
+     * @param idleMillis how long a key has to be inactive to be idle
+     * @param recheckMillis how long to wait before checking an idle key again when one of the conditions failed
+     * @param idleListener called with the keys that have been removed because they're idle
+     */
+    public IdleTracker(long idleMillis, long recheckMillis, Consumer<K> idleListener) {
+        this.idleMillis = idleMillis;
+        this.recheckMillis = recheckMillis;
+        this.idleListener = idleListener;
+        this.slots.defaultReturnValue(-1);
+    }
+
+    /**
+     * Adds a condition that has to be satisfied before an idle key is removed.
+     */
+    public IdleTracker<K> addRemovalCondition(Object2BooleanFunction<K> condition) {
+        conditions.add(condition);
+        return this;
+    }
+
+    public void add(K key) {
+        remove(key);
+
+        int slot = freeSlots.isEmpty() ? nextSlot() : freeSlots.popInt();
+        keys[slot] = key;
+        lastActivity[slot] = now;
+        slots.put(key, slot);
+        deadlines.add(new Deadline(now + idleMillis, slot, generations[slot]));
+    }
+
+    /**
+     * Marks the key as active. Does nothing when the key isn't tracked.
+     */
+    public void touch(K key) {
+        int slot = slots.getInt(key);
+        if (slot != -1) {
+            lastActivity[slot] = now;
+        }
+    }
+
+    /**
+     * Stops tracking the key without calling the idle listener.
+     */
+    public void remove(K key) {
+        int slot = slots.removeInt(key);
+        if (slot != -1) {
+            release(slot);
+        }
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Updates the clock and removes the keys that are idle and satisfy all the removal conditions.
+     * Should be called every tick.
+     */
+    public void tick() {
+        now = System.currentTimeMillis();
+
+        Deadline deadline;
+        while ((deadline = deadlines.peek()) != null && deadline.at() <= now) {
+            deadlines.poll();
+            int slot = deadline.slot();
+            // the key has been removed since this deadline was queued
+            if (generations[slot] != deadline.generation()) {
+                continue;
+            }
+
+            long idleAt = lastActivity[slot] + idleMillis;
+            if (idleAt > now) {
+                deadlines.add(new Deadline(idleAt, slot, deadline.generation()));
+                continue;
+            }
+
+            @SuppressWarnings("unchecked")
+            K key = (K) keys[slot];
+            if (!satisfiesConditions(key)) {
+                deadlines.add(new Deadline(now + recheckMillis, slot, deadline.generation()));
+                continue;
+            }
+
+            slots.removeInt(key);
+            release(slot);
+            idleListener.accept(key);
+        }
+    }
+
+    private boolean satisfiesConditions(K key) {
+        for (Object2BooleanFunction<K> condition : conditions) {
+            if (!condition.apply(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int nextSlot() {
+        if (usedSlots == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            lastActivity = Arrays.copyOf(lastActivity, capacity);
+            generations = Arrays.copyOf(generations, capacity);
+        }
+        return usedSlots++;
+    }
+
+    private void release(int slot) {
+        keys[slot] = null;
+        generations[slot]++;
+        freeSlots.add(slot);
+    }
+
+    private record Deadline(long at, int slot, int generation) {}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Collects the submitted items for a short while (or until enough items have been collected) and then processes all of
+ * them at once on the given executor.
+ * The batch function has to return exactly one result for every item, in the same order as the items.
+ * <p>
+ * If the batch function throws, every item of that batch fails with the same exception.
+ */
+@NullMarked
+public final class MicroBatcher<T, R> {
+    private final int maxBatchSize;
+    private final Executor delayedExecutor;
+    private final Executor executor;
+    private final ThrowingFunction<List<T>, List<R>> batchFunction;
+
+    private List<Entry<T, R>> pending = new ArrayList<>();
+    private long batchId;
+
+    public MicroBatcher(
+            int maxBatchSize, long maxDelayMillis, Executor executor, ThrowingFunction<List<T>, List<R>> batchFunction) {
+        this.maxBatchSize = maxBatchSize;
+        // the delayed flush only drains the batch, the batch itself is handed to the executor through dispatch
+        this.delayedExecutor = CompletableFuture.delayedExecutor(maxDelayMillis, TimeUnit.MILLISECONDS, Runnable::run);
+        this.executor = executor;
+        this.batchFunction = batchFunction;
+    }
+
+    public CompletableFuture<R> submit(T item) {
+        var entry = new Entry<T, R>(item, new CompletableFuture<>());
+
+        List<Entry<T, R>> fullBatch = null;
+        synchronized (this) {
+            pending.add(entry);
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = drain();
+            } else if (pending.size() == 1) {
+                long id = batchId;
+                delayedExecutor.execute(() -> flush(id));
+            }
+        }
+
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+        return entry.future();
+    }
+
+    private void flush(long id) {
+        List<Entry<T, R>> batch;
+        synchronized (this) {
+            // the batch this flush was scheduled for has already been processed because it was full
+            if (id != batchId || pending.isEmpty()) {
+                return;
+            }
+            batch = drain();
+        }
+        dispatch(batch);
+    }
+
+    private List<Entry<T, R>> drain() {
+        var batch = pending;
+        pending = new ArrayList<>();
+        batchId++;
+        return batch;
+    }
+
+    private void dispatch(List<Entry<T, R>> batch) {
+        try {
+            executor.execute(() -> process(batch));
+        } catch (RejectedExecutionException exception) {
+            fail(batch, exception);
+        }
+    }
+
+    private void process(List<Entry<T, R>> batch) {
+        List<T> items = new ArrayList<>(batch.size());
+        for (Entry<T, R> entry : batch) {
+            items.add(entry.item());
+        }
+
+        try {
+            List<R> results = batchFunction.apply(items);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future().complete(results.get(i));
+            }
+        } catch (Throwable throwable) {
+            fail(batch, throwable);
+        }
+    }
+
+    private void fail(List<Entry<T, R>> batch, Throwable throwable) {
+        var exception = new CompletionException("Error while processing batch", throwable);
+        for (Entry<T, R> entry : batch) {
+            entry.future().completeExceptionally(exception);
+        }
+    }
+
+    private record Entry<T, R>(T item, CompletableFuture<R> future) {}
+}
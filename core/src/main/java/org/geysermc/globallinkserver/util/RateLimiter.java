@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.util;
+
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * A token bucket per key, that allows {@code burst} requests at once and refills a request every {@code interval}.
+ * <p>
+ * Instead of the amount of tokens, only the moment at which the bucket of a key is full again is stored, as a single
+ * long per key. A bucket that is full is the same as a key that has never been seen, so those are dropped by
+ * {@link #decay()}.
+ * <p>
+ * This class is not thread safe. It's meant to be used from the main thread only, which is where commands are called.
+ */
+@NullMarked
+public final class RateLimiter<K> {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final Object2LongMap<K> fullAt = new Object2LongOpenHashMap<>();
+    private long rejectedCount;
+
+    public RateLimiter(int burst, long interval, TimeUnit unit) {
+        this.intervalNanos = unit.toNanos(interval);
+        this.burstNanos = intervalNanos * burst;
+        this.fullAt.defaultReturnValue(Long.MIN_VALUE);
+    }
+
+    /**
+     * Takes a token from the bucket of the given key.
+     *
+     * @return true if there was a token left, false if the request should be rejected
+     */
+    public boolean tryAcquire(K key) {
+        long now = System.nanoTime();
+        long full = fullAt.getLong(key);
+        // the bucket is full again, or has never been used
+        if (full == Long.MIN_VALUE || full - now < 0) {
+            full = now;
+        }
+
+        long next = full + intervalNanos;
+        if (next - now > burstNanos) {
+            rejectedCount++;
+            return false;
+        }
+        fullAt.put(key, next);
+        return true;
+    }
+
+    /**
+     * Forgets the keys whose bucket is full again.
+     */
+    public void decay() {
+        long now = System.nanoTime();
+        var iterator = fullAt.object2LongEntrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getLongValue() - now <= 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns how many requests have been rejected in total.
+     */
+    public long rejectedCount() {
+        return rejectedCount;
+    }
+
+    public int trackedKeys() {
+        return fullAt.size();
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geysermc.globallinkserver.config.Config;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Drives {@link DatabaseManager#supplyAsync} against a data source that can be made slow or broken at will.
+ */
+@NullMarked
+class CircuitBreakerTest {
+    private static final int MINIMUM_CALLS = 4;
+    private static final long SLOW_CALL_MILLIS = 50;
+    private static final long OPEN_SECONDS = 1;
+    private static final int HALF_OPEN_PROBES = 2;
+
+    private final FaultyDataSource dataSource = new FaultyDataSource();
+
+    @Test
+    void failingConnectionsOpenTheCircuitUntilProbesSucceed() throws Exception {
+        var database = database(1, 100);
+
+        dataSource.mode = Mode.FAILING;
+        for (int i = 0; i < MINIMUM_CALLS; i++) {
+            assertFails(database, SQLTransientConnectionException.class);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, database.circuitState());
+
+        // while open the database isn't called at all
+        int connectionsBefore = dataSource.connections.get();
+        assertFails(database, DatabaseUnavailableException.class);
+        assertEquals(connectionsBefore, dataSource.connections.get());
+
+        dataSource.mode = Mode.HEALTHY;
+        waitUntilHalfOpen();
+        for (int i = 0; i < HALF_OPEN_PROBES; i++) {
+            assertEquals(1, callDatabase(database).get());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, database.circuitState());
+    }
+
+    @Test
+    void slowQueriesOpenTheCircuit() throws Exception {
+        var database = database(1, 100);
+
+        dataSource.mode = Mode.SLOW_QUERIES;
+        for (int i = 0; i < MINIMUM_CALLS; i++) {
+            assertEquals(1, callDatabase(database).get());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, database.circuitState());
+        assertFails(database, DatabaseUnavailableException.class);
+    }
+
+    @Test
+    void slowBorrowsDontOpenTheCircuit() throws Exception {
+        var database = database(1, 100);
+
+        // like waiting for a connection of a busy pool
+        dataSource.mode = Mode.SLOW_BORROWS;
+        for (int i = 0; i < MINIMUM_CALLS * 2; i++) {
+            assertEquals(1, callDatabase(database).get());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, database.circuitState());
+    }
+
+    @Test
+    void failingProbeOpensTheCircuitAgain() throws Exception {
+        var database = database(1, 100);
+
+        dataSource.mode = Mode.FAILING;
+        for (int i = 0; i < MINIMUM_CALLS; i++) {
+            assertFails(database, SQLTransientConnectionException.class);
+        }
+
+        waitUntilHalfOpen();
+        assertFails(database, SQLTransientConnectionException.class);
+        assertEquals(CircuitBreaker.State.OPEN, database.circuitState());
+        assertFails(database, DatabaseUnavailableException.class);
+    }
+
+    @Test
+    void rejectedTasksDontOpenTheCircuit() throws Exception {
+        // a single connection and a single queued task, so most of the calls are rejected
+        var database = database(1, 1);
+
+        dataSource.mode = Mode.BLOCKED;
+        List<CompletableFuture<Integer>> calls = new ArrayList<>();
+        int rejected = 0;
+        for (int i = 0; i < MINIMUM_CALLS * 5; i++) {
+            var call = callDatabase(database);
+            if (call.isCompletedExceptionally()) {
+                assertInstanceOf(RejectedExecutionException.class, cause(call));
+                rejected++;
+            } else {
+                calls.add(call);
+            }
+        }
+        assertTrue(rejected >= MINIMUM_CALLS);
+        assertEquals(CircuitBreaker.State.CLOSED, database.circuitState());
+
+        dataSource.unblock.countDown();
+        for (var call : calls) {
+            assertEquals(1, call.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, database.circuitState());
+    }
+
+    private DatabaseManager database(int maxPoolSize, int maxQueuedTasks) {
+        var circuitBreaker = new Config.CircuitBreaker(
+                10, MINIMUM_CALLS, 0.5, 0.5, SLOW_CALL_MILLIS, OPEN_SECONDS, HALF_OPEN_PROBES);
+        var config = TestDatabases.config(maxPoolSize, maxQueuedTasks, circuitBreaker);
+        return TestDatabases.database(config, TestDatabases.dataSource(dataSource::connection));
+    }
+
+    private static CompletableFuture<Integer> callDatabase(DatabaseManager database) {
+        return database.supplyAsync(() -> {
+            try (Connection connection = database.connection();
+                    PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                return 1;
+            } catch (SQLException exception) {
+                throw new CompletionException(exception);
+            }
+        });
+    }
+
+    private static void assertFails(DatabaseManager database, Class<? extends Throwable> expected) {
+        var call = callDatabase(database);
+        assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(expected, cause(call));
+    }
+
+    private static Throwable cause(CompletableFuture<?> future) {
+        Throwable cause = future.exceptionNow();
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static void waitUntilHalfOpen() throws InterruptedException {
+        Thread.sleep(TimeUnit.SECONDS.toMillis(OPEN_SECONDS) + 100);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private enum Mode {
+        HEALTHY,
+        SLOW_QUERIES,
+        SLOW_BORROWS,
+        FAILING,
+        BLOCKED
+    }
+
+    /**
+     * Hands out connections that do nothing, slowly or not at all depending on the mode.
+     */
+    private static final class FaultyDataSource {
+        private final AtomicInteger connections = new AtomicInteger();
+        private final CountDownLatch unblock = new CountDownLatch(1);
+        private volatile Mode mode = Mode.HEALTHY;
+
+        private Connection connection() throws SQLException, InterruptedException {
+            connections.incrementAndGet();
+            switch (mode) {
+                case HEALTHY, SLOW_QUERIES -> {}
+                case SLOW_BORROWS -> Thread.sleep(SLOW_CALL_MILLIS * 2);
+                case FAILING -> throw new SQLTransientConnectionException("Connection refused");
+                case BLOCKED -> unblock.await();
+            }
+            var statement = TestDatabases.proxy(PreparedStatement.class, (method, args) -> {
+                if (!method.equals("close")) {
+                    throw new UnsupportedOperationException(method);
+                }
+                return null;
+            });
+            return TestDatabases.connection(sql -> {
+                if (mode == Mode.SLOW_QUERIES) {
+                    sleep(SLOW_CALL_MILLIS * 2);
+                }
+                return statement;
+            });
+        }
+    }
+}
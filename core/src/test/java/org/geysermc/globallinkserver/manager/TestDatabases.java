@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.manager;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+import org.geysermc.globallinkserver.config.Config;
+import org.geysermc.globallinkserver.link.LinkCodeSpace;
+import org.geysermc.globallinkserver.metrics.MetricsRegistry;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Creates database managers on top of a data source stand-in, for the tests and benchmarks outside of this package.
+ */
+@NullMarked
+public final class TestDatabases {
+    public static final Config.CircuitBreaker DEFAULT_CIRCUIT_BREAKER =
+            new Config.CircuitBreaker(20, 10, 0.5, 0.5, 2000, 10, 3);
+    public static final Config.GamertagCache DEFAULT_GAMERTAG_CACHE = new Config.GamertagCache(10_000, 86_400);
+
+    private TestDatabases() {}
+
+    public static Config config(int maxPoolSize, int maxQueuedTasks, Config.CircuitBreaker circuitBreaker) {
+        return new Config(
+                new Config.Database(
+                        "", "", "", "", maxPoolSize, maxQueuedTasks, JavaIdFormat.DUAL, false, List.of(), 10),
+                circuitBreaker,
+                new Config.LinkRequests(Config.LinkRequests.StoreType.MEMORY, 0, 1, LinkCodeSpace.Layout.INTERLEAVED),
+                new Config.LinkCache(600, 10_000),
+                DEFAULT_GAMERTAG_CACHE,
+                new Config.RateLimits(
+                        new Config.RateLimits.RateLimit(true, 3, 20),
+                        new Config.RateLimits.RateLimit(true, 5, 5),
+                        new Config.RateLimits.RateLimit(true, 10, 2)),
+                new Config.Metrics(false, "127.0.0.1", 0),
+                new Config.LeanMode(false, 2, 2));
+    }
+
+    /**
+     * Uses the given data source as the primary, without replicas and without checking or migrating the schema.
+     */
+    public static DatabaseManager database(Config config, DataSource dataSource) {
+        return new DatabaseManager(config, Logger.getLogger("Test"), new MetricsRegistry(), dataSource);
+    }
+
+    /**
+     * Returns a data source where every query finds nothing, like a database without any links.
+     */
+    public static DataSource withoutLinks() {
+        var statement = proxy(PreparedStatement.class, (method, args) -> switch (method) {
+            case "setString", "setBytes", "setLong", "close" -> null;
+            case "executeQuery" -> resultSet(List.of());
+            default -> throw new UnsupportedOperationException(method);
+        });
+        var connection = connection(sql -> statement);
+        return dataSource(() -> connection);
+    }
+
+    /**
+     * Returns a data source that hands out the connections of the given source, which can be slow or fail like a real
+     * database.
+     */
+    public static DataSource dataSource(Callable<Connection> connections) {
+        return proxy(DataSource.class, (method, args) -> {
+            if (!method.equals("getConnection")) {
+                throw new UnsupportedOperationException(method);
+            }
+            return connections.call();
+        });
+    }
+
+    /**
+     * Returns a connection that prepares its statements with the given function and supports nothing else.
+     */
+    public static Connection connection(Function<String, PreparedStatement> statements) {
+        return proxy(Connection.class, (method, args) -> switch (method) {
+            case "prepareStatement" -> statements.apply((String) args[0]);
+            case "close" -> null;
+            case "isClosed" -> false;
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    /**
+     * Returns a result set of the given rows, which map the column labels to their values.
+     */
+    public static ResultSet resultSet(List<Map<String, Object>> rows) {
+        int[] row = {-1};
+        return proxy(ResultSet.class, (method, args) -> switch (method) {
+            case "next" -> ++row[0] < rows.size();
+            case "getString", "getLong", "getInt", "getBytes" -> rows.get(row[0]).get((String) args[0]);
+            case "close" -> null;
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    /**
+     * Implements the given interface with the given handler, which gets the name and the arguments of every call
+     * besides the methods of {@link Object}.
+     */
+    public static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName();
+                    default -> handler.handle(method.getName(), args != null ? args : new Object[0]);
+                }));
+    }
+
+    public interface Handler {
+        @Nullable Object handle(String method, @Nullable Object[] args) throws Exception;
+    }
+}
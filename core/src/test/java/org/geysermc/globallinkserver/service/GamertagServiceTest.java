@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import javax.sql.DataSource;
+import org.geysermc.globallinkserver.config.Config;
+import org.geysermc.globallinkserver.manager.TestDatabases;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs the gamertag service against an in memory gamertags table and a global api stand-in.
+ */
+@NullMarked
+class GamertagServiceTest {
+    private static final long XUID = 2_535_000_000_000_001L;
+    private static final long REFRESH_AFTER_SECONDS = 1;
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    private final Map<Long, StoredGamertag> storedGamertags = new ConcurrentHashMap<>();
+    private final Map<Long, String> remoteGamertags = new ConcurrentHashMap<>();
+    private final AtomicInteger remoteLookups = new AtomicInteger();
+    private volatile boolean remoteFailing;
+
+    private final GamertagService service = new GamertagService(
+            TestDatabases.database(
+                    TestDatabases.config(3, 100, TestDatabases.DEFAULT_CIRCUIT_BREAKER), gamertagTable()),
+            this::remoteLookup,
+            new Config.GamertagCache(10_000, REFRESH_AFTER_SECONDS));
+
+    @Test
+    void storedGamertagIsUsedWithoutAskingTheGlobalApi() throws Exception {
+        store("Stored", System.currentTimeMillis());
+        remoteGamertags.put(XUID, "Remote");
+
+        assertEquals("Stored", gamertag());
+        assertEquals(0, remoteLookups.get());
+    }
+
+    @Test
+    void unknownGamertagIsFetchedFromTheGlobalApiAndStored() throws Exception {
+        remoteGamertags.put(XUID, "Remote");
+
+        assertEquals("Remote", gamertag());
+        assertEquals(1, remoteLookups.get());
+        awaitTrue(() -> "Remote".equals(storedGamertag()));
+
+        // known gamertags are served from memory
+        assertEquals("Remote", gamertag());
+        assertEquals(1, remoteLookups.get());
+    }
+
+    @Test
+    void gamertagUnknownEverywhereIsNull() throws Exception {
+        assertNull(gamertag());
+    }
+
+    @Test
+    void staleGamertagIsServedWhileRefreshing() throws Exception {
+        store("Old", System.currentTimeMillis());
+        assertEquals("Old", gamertag());
+
+        remoteGamertags.put(XUID, "New");
+        Thread.sleep(TimeUnit.SECONDS.toMillis(REFRESH_AFTER_SECONDS) + 100);
+
+        // the first read after the refresh interval still gets the stale gamertag
+        assertEquals("Old", gamertag());
+        awaitTrue(() -> "New".equals(gamertagNow()));
+        awaitTrue(() -> "New".equals(storedGamertag()));
+    }
+
+    @Test
+    void outdatedStoredGamertagIsServedWhileRefreshing() throws Exception {
+        store("Old", System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(REFRESH_AFTER_SECONDS) - 1);
+        remoteGamertags.put(XUID, "New");
+
+        // the stored gamertag was last updated before the refresh interval, even though it was only just loaded
+        assertEquals("Old", gamertag());
+        awaitTrue(() -> "New".equals(gamertagNow()));
+        awaitTrue(() -> "New".equals(storedGamertag()));
+        assertEquals(1, remoteLookups.get());
+    }
+
+    @Test
+    void staleGamertagIsKeptWhenTheGlobalApiFails() throws Exception {
+        store("Old", System.currentTimeMillis());
+        assertEquals("Old", gamertag());
+
+        remoteFailing = true;
+        Thread.sleep(TimeUnit.SECONDS.toMillis(REFRESH_AFTER_SECONDS) + 100);
+
+        assertEquals("Old", gamertag());
+        awaitTrue(() -> remoteLookups.get() > 0);
+        assertEquals("Old", gamertag());
+    }
+
+    @Test
+    void rememberedGamertagIsServedAndStored() throws Exception {
+        service.remember(XUID, "Linked");
+
+        assertEquals("Linked", gamertag());
+        assertEquals(0, remoteLookups.get());
+        awaitTrue(() -> "Linked".equals(storedGamertag()));
+    }
+
+    private @Nullable String gamertag() throws Exception {
+        return service.gamertagFor(XUID).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private @Nullable String gamertagNow() {
+        try {
+            return gamertag();
+        } catch (Exception exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private CompletableFuture<@Nullable String> remoteLookup(long xuid) {
+        remoteLookups.incrementAndGet();
+        if (remoteFailing) {
+            return CompletableFuture.failedFuture(new IllegalStateException("The global api is unavailable"));
+        }
+        return CompletableFuture.completedFuture(remoteGamertags.get(xuid));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    private void store(String gamertag, long updatedAt) {
+        storedGamertags.put(XUID, new StoredGamertag(gamertag, updatedAt));
+    }
+
+    private @Nullable String storedGamertag() {
+        var stored = storedGamertags.get(XUID);
+        return stored != null ? stored.gamertag() : null;
+    }
+
+    /**
+     * A data source that only knows the two gamertag queries, backed by {@link #storedGamertags}.
+     */
+    private DataSource gamertagTable() {
+        var connection = TestDatabases.connection(this::statement);
+        return TestDatabases.dataSource(() -> connection);
+    }
+
+    private PreparedStatement statement(String sql) {
+        Object[] parameters = new Object[4];
+        return TestDatabases.proxy(PreparedStatement.class, (method, args) -> switch (method) {
+            case "setLong", "setString" -> {
+                parameters[(int) args[0]] = args[1];
+                yield null;
+            }
+            case "executeQuery" -> {
+                if (!sql.startsWith("SELECT `gamertag`, `updated_at` FROM `gamertags`")) {
+                    throw new UnsupportedOperationException(sql);
+                }
+                var stored = storedGamertags.get((Long) parameters[1]);
+                yield TestDatabases.resultSet(
+                        stored == null
+                                ? List.of()
+                                : List.of(Map.of("gamertag", stored.gamertag(), "updated_at", stored.updatedAt())));
+            }
+            case "executeUpdate" -> {
+                if (!sql.startsWith("INSERT INTO `gamertags`")) {
+                    throw new UnsupportedOperationException(sql);
+                }
+                storedGamertags.put(
+                        (Long) parameters[1], new StoredGamertag((String) parameters[2], (Long) parameters[3]));
+                yield 1;
+            }
+            case "close" -> null;
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private record StoredGamertag(String gamertag, long updatedAt) {}
+}
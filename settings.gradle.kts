@@ -8,3 +8,5 @@ pluginManagement {
 }
 
 rootProject.name = "GlobalLinkServer"
+
+include("core", "velocity")
@@ -6,23 +6,28 @@
 package org.geysermc.globallinkserver;
 
 import com.destroystokyo.paper.event.server.PaperServerListPingEvent;
+import com.mojang.brigadier.Command;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import io.papermc.paper.command.brigadier.CommandSourceStack;
 import io.papermc.paper.command.brigadier.Commands;
 import io.papermc.paper.event.player.AsyncChatEvent;
 import io.papermc.paper.plugin.lifecycle.event.LifecycleEventManager;
 import io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.GameRule;
+import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
-import org.bukkit.event.block.Action;
 import org.bukkit.event.entity.FoodLevelChangeEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.player.PlayerCommandPreprocessEvent;
@@ -33,17 +38,19 @@ import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.geysermc.floodgate.api.FloodgateApi;
+import org.geysermc.globallinkserver.config.BukkitConfigSection;
 import org.geysermc.globallinkserver.config.ConfigReader;
-import org.geysermc.globallinkserver.handler.CommandHandler;
+import org.geysermc.globallinkserver.handler.ActionBarBroadcaster;
 import org.geysermc.globallinkserver.handler.JoinHandler;
+import org.geysermc.globallinkserver.handler.LeanModeHandler;
 import org.geysermc.globallinkserver.handler.MoveInactivityHandler;
 import org.geysermc.globallinkserver.handler.TeleportToSpawnHandler;
-import org.geysermc.globallinkserver.link.LinkManager;
-import org.geysermc.globallinkserver.manager.DatabaseManager;
-import org.geysermc.globallinkserver.manager.PlayerManager;
-import org.geysermc.globallinkserver.service.LinkInfoService;
+import org.geysermc.globallinkserver.metrics.Counter;
+import org.geysermc.globallinkserver.platform.PaperPlayer;
+import org.geysermc.globallinkserver.platform.PaperScheduler;
+import org.geysermc.globallinkserver.platform.PlatformPlayer;
 import org.geysermc.globallinkserver.service.LinkLookupService;
-import org.geysermc.globallinkserver.util.MultiConditionSet;
+import org.geysermc.globallinkserver.util.IdleTracker;
 import org.geysermc.globallinkserver.util.Utils;
 
 @SuppressWarnings("UnstableApiUsage")
@@ -51,41 +58,55 @@ public class GlobalLinkServer extends JavaPlugin implements Listener {
     private static final Set<String> PERMITTED_COMMANDS =
             Set.of("link", "linkaccount", "linkinfo", "info", "unlink", "unlinkaccount", "help");
 
-    private final MultiConditionSet<UUID> playerIdleTracker = new MultiConditionSet<>(15_000, uuid -> {
-        Player player = Bukkit.getPlayer(uuid);
-        if (player != null) {
-            Bukkit.getScheduler().callSyncMethod(this, () -> {
-                player.kick(Components.KICK_IDLE);
-                return null;
-            });
-        }
-    });
+    private static final long IDLE_TIMEOUT_MILLIS = 15 * 60 * 1000; // 15 minutes
+    private static final long IDLE_RECHECK_MILLIS = 15_000;
 
+    // ticked on the main thread, so the player can be kicked right away
+    private final IdleTracker<UUID> playerIdleTracker =
+            new IdleTracker<>(IDLE_TIMEOUT_MILLIS, IDLE_RECHECK_MILLIS, this::kickIdlePlayer);
+
+    private GlobalLinkCore core;
     private LinkLookupService linkLookupService;
-    private LinkInfoService linkInfoService;
+    private Counter idleKicks;
 
     @Override
     public void onEnable() {
-        var config = ConfigReader.readConfig(this);
+        saveDefaultConfig();
+        var config = ConfigReader.readConfig(new BukkitConfigSection(getConfig()));
+        var spawn = readSpawn();
 
-        var playerManager = new PlayerManager(FloodgateApi.getInstance());
-        var databaseManager = new DatabaseManager(config);
-        var linkManager = new LinkManager(playerManager, databaseManager);
-        linkLookupService = new LinkLookupService(playerManager, databaseManager);
-        linkInfoService = new LinkInfoService(linkLookupService, playerManager);
+        core = new GlobalLinkCore(
+                config,
+                getLogger(),
+                FloodgateApi.getInstance(),
+                uuid -> PaperPlayer.of(getServer().getPlayer(uuid)),
+                Bukkit.getScheduler().getMainThreadExecutor(this));
+        linkLookupService = core.linkLookupService();
+        var linkManager = core.linkManager();
+        var commandHandler = core.commandHandler();
+        idleKicks = core.metrics().counter("idle_kicks_total", "Players that were kicked for being idle");
 
-        var commandUtils = new CommandHandler(linkLookupService, linkInfoService, linkManager, playerManager, this);
+        core.scheduleTasks(new PaperScheduler(this));
 
-        // clean up link requests every 30s
-        Bukkit.getScheduler().scheduleSyncRepeatingTask(this, linkManager::cleanupLinkRequests, 60 * 20, 30 * 20);
+        var actionBarBroadcaster = new ActionBarBroadcaster(linkLookupService);
+        Bukkit.getScheduler().scheduleSyncRepeatingTask(this, actionBarBroadcaster::tick, 1, 1);
 
-        Bukkit.getScheduler().scheduleSyncRepeatingTask(this, this::broadcastLinkStatusActionbar, 10, 15);
+        // kick idle players, every tick only looks at the players that could have become idle
+        Bukkit.getScheduler().scheduleSyncRepeatingTask(this, playerIdleTracker::tick, 1, 1);
 
         var pluginManager = getServer().getPluginManager();
         pluginManager.registerEvents(this, this);
-        pluginManager.registerEvents(new JoinHandler(linkLookupService, playerIdleTracker, this), this);
-        pluginManager.registerEvents(new MoveInactivityHandler(playerIdleTracker), this);
-        pluginManager.registerEvents(new TeleportToSpawnHandler(config.spawn()), this);
+        pluginManager.registerEvents(actionBarBroadcaster, this);
+        pluginManager.registerEvents(new JoinHandler(core, playerIdleTracker), this);
+        pluginManager.registerEvents(new TeleportToSpawnHandler(spawn), this);
+        if (config.leanMode().enabled()) {
+            var leanModeHandler = new LeanModeHandler(this, config.leanMode(), spawn, playerIdleTracker);
+            leanModeHandler.applyToWorld();
+            pluginManager.registerEvents(leanModeHandler, this);
+        } else {
+            // without a listener Paper doesn't create move events at all, lean mode relies on that
+            pluginManager.registerEvents(new MoveInactivityHandler(playerIdleTracker), this);
+        }
 
         // if the player has an active link request, don't kick the player
         playerIdleTracker.addRemovalCondition(uuid -> !linkManager.hasActiveLinkRequest(uuid));
@@ -96,33 +117,31 @@ public class GlobalLinkServer extends JavaPlugin implements Listener {
             commands.register(
                     Commands.literal("link")
                             .requires(ctx -> ctx.getSender() instanceof Player)
-                            .executes(commandUtils::startLink)
+                            .executes(ctx -> runCommand(ctx, commandHandler::startLink))
                             .then(Commands.argument("code", IntegerArgumentType.integer(0, 9999))
-                                    .executes(commandUtils::linkWithCode))
+                                    .executes(ctx -> runCommand(ctx, player -> commandHandler.linkWithCode(
+                                            player, IntegerArgumentType.getInteger(ctx, "code")))))
                             .build(),
                     "Use this command to link your Java and Bedrock account.",
                     List.of("linkaccount"));
             commands.register(
                     Commands.literal("unlink")
                             .requires(ctx -> ctx.getSender() instanceof Player)
-                            .executes(commandUtils::unlink)
+                            .executes(ctx -> runCommand(ctx, commandHandler::unlink))
                             .build(),
                     "Use this command to unlink your Java and Bedrock account.",
                     List.of("unlinkaccount"));
             commands.register(
                     Commands.literal("linkinfo")
                             .requires(ctx -> ctx.getSender() instanceof Player)
-                            .executes(ctx -> {
-                                linkInfoService.sendCurrentLinkInfo(Utils.contextExecutor(ctx));
-                                return 1;
-                            })
+                            .executes(ctx -> runCommand(ctx, core.linkInfoService()::sendCurrentLinkInfo))
                             .build(),
                     "Use this command to show information whether you are currently linked.",
                     List.of("info"));
         });
 
         // Set game rules
-        World world = config.spawn().getWorld();
+        World world = spawn.getWorld();
         world.setGameRule(GameRule.ANNOUNCE_ADVANCEMENTS, false);
         world.setGameRule(GameRule.DO_MOB_SPAWNING, false);
         world.setGameRule(GameRule.DO_WEATHER_CYCLE, false);
@@ -144,21 +163,34 @@ public class GlobalLinkServer extends JavaPlugin implements Listener {
         getLogger().info("Started Global Linking plugin!");
     }
 
-    private void broadcastLinkStatusActionbar() {
-        Bukkit.getOnlinePlayers().forEach(player -> {
-            if (linkLookupService.isLookupCompleted(player)) {
-                if (linkLookupService.isLinkedCached(player)) {
-                    player.sendActionBar(Components.UNLINK_INSTRUCTION);
-                } else {
-                    player.sendActionBar(Components.LINK_INSTRUCTION);
-                }
-            }
-        });
-    }
-
     @Override
     public void onDisable() {
-        playerIdleTracker.close();
+        if (core != null) {
+            core.shutdown();
+        }
+    }
+
+    private Location readSpawn() {
+        var locationSection = Objects.requireNonNull(getConfig().getConfigurationSection("spawn"));
+        var spawnLocation = Location.deserialize(locationSection.getValues(false));
+
+        if (!spawnLocation.isWorldLoaded()) {
+            throw new IllegalArgumentException("World %s is not loaded".formatted(locationSection.getString("world")));
+        }
+        return spawnLocation;
+    }
+
+    private static int runCommand(CommandContext<CommandSourceStack> ctx, Consumer<PlatformPlayer> command) {
+        command.accept(new PaperPlayer(Utils.contextExecutor(ctx)));
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private void kickIdlePlayer(UUID uuid) {
+        Player player = Bukkit.getPlayer(uuid);
+        if (player != null) {
+            idleKicks.increment();
+            player.kick(Components.KICK_IDLE);
+        }
     }
 
     @EventHandler
@@ -191,12 +223,12 @@ public class GlobalLinkServer extends JavaPlugin implements Listener {
         if (command.equalsIgnoreCase("help")) {
             event.setCancelled(true);
 
-            if (!linkLookupService.isLookupCompleted(player)) {
+            if (!linkLookupService.isLookupCompleted(player.getUniqueId())) {
                 player.sendMessage(Components.LINK_INFO_UNAVAILABLE);
                 return;
             }
 
-            if (linkLookupService.isLinkedCached(player)) {
+            if (linkLookupService.isLinkedCached(player.getUniqueId())) {
                 player.sendMessage(Components.UNLINK_INSTRUCTION);
             } else {
                 player.sendMessage(Components.LINK_INSTRUCTION);
@@ -216,7 +248,7 @@ public class GlobalLinkServer extends JavaPlugin implements Listener {
     public void onPlayerLeave(PlayerQuitEvent event) {
         event.quitMessage(null);
         playerIdleTracker.remove(event.getPlayer().getUniqueId());
-        linkLookupService.invalidate(event.getPlayer());
+        core.playerLeft(event.getPlayer().getUniqueId());
     }
 
     @EventHandler
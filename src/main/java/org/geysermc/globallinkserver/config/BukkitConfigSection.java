@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.config;
+
+import java.util.List;
+import org.bukkit.configuration.ConfigurationSection;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+@NullMarked
+public record BukkitConfigSection(ConfigurationSection section) implements ConfigSection {
+    @Override
+    public @Nullable ConfigSection section(String key) {
+        var child = section.getConfigurationSection(key);
+        return child != null ? new BukkitConfigSection(child) : null;
+    }
+
+    @Override
+    public @Nullable String getString(String key) {
+        return section.getString(key);
+    }
+
+    @Override
+    public String getString(String key, String def) {
+        return section.getString(key, def);
+    }
+
+    @Override
+    public int getInt(String key, int def) {
+        return section.getInt(key, def);
+    }
+
+    @Override
+    public long getLong(String key, long def) {
+        return section.getLong(key, def);
+    }
+
+    @Override
+    public double getDouble(String key, double def) {
+        return section.getDouble(key, def);
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean def) {
+        return section.getBoolean(key, def);
+    }
+
+    @Override
+    public List<String> getStringList(String key) {
+        return section.getStringList(key);
+    }
+}
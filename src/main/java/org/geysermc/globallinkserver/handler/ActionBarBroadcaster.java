@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.handler;
+
+import io.papermc.paper.adventure.PaperAdventure;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import net.kyori.adventure.text.Component;
+import net.minecraft.network.protocol.game.ClientboundSetActionBarTextPacket;
+import org.bukkit.craftbukkit.entity.CraftPlayer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.geysermc.globallinkserver.Components;
+import org.geysermc.globallinkserver.service.LinkLookupService;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Shows every player whether they're linked in their action bar.
+ * Players are spread over a few buckets and every tick only the players of one bucket are checked, so the work is
+ * spread evenly over the ticks. The action bar is only sent when it changed, or when the client is about to fade out
+ * the previous one. The packets are created once and shared by every player.
+ * <p>
+ * Everything happens on the main thread.
+ */
+@NullMarked
+public final class ActionBarBroadcaster implements Listener {
+    // every player is checked once every this many ticks
+    private static final int BUCKET_COUNT = 10;
+    // the client shows an action bar for 60 ticks and fades it out during the last 20
+    private static final int RESEND_TICKS = 40;
+
+    private final LinkLookupService linkLookupService;
+    private final Map<UUID, Viewer> viewers = new HashMap<>();
+    private final List<List<Viewer>> buckets = new ArrayList<>(BUCKET_COUNT);
+    private int currentTick;
+
+    public ActionBarBroadcaster(LinkLookupService linkLookupService) {
+        this.linkLookupService = linkLookupService;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Should be called every tick.
+     */
+    public void tick() {
+        currentTick++;
+        for (Viewer viewer : buckets.get(currentTick % BUCKET_COUNT)) {
+            var actionBar = actionBarFor(viewer.player);
+            if (actionBar == null) {
+                continue;
+            }
+
+            if (actionBar != viewer.lastSent || currentTick - viewer.lastSentTick >= RESEND_TICKS) {
+                ((CraftPlayer) viewer.player).getHandle().connection.send(actionBar.packet);
+                viewer.lastSent = actionBar;
+                viewer.lastSentTick = currentTick;
+            }
+        }
+    }
+
+    private @Nullable ActionBar actionBarFor(Player player) {
+        var uuid = player.getUniqueId();
+        // the lookup is still in process, or is retried because the database was unavailable
+        if (!linkLookupService.isLookupCompleted(uuid)) {
+            return null;
+        }
+        return linkLookupService.isLinkedCached(uuid) ? ActionBar.UNLINK : ActionBar.LINK;
+    }
+
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        var viewer = new Viewer(event.getPlayer());
+        viewers.put(viewer.player.getUniqueId(), viewer);
+        smallestBucket().add(viewer);
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        var viewer = viewers.remove(event.getPlayer().getUniqueId());
+        if (viewer != null) {
+            for (List<Viewer> bucket : buckets) {
+                if (bucket.remove(viewer)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private List<Viewer> smallestBucket() {
+        var smallest = buckets.getFirst();
+        for (List<Viewer> bucket : buckets) {
+            if (bucket.size() < smallest.size()) {
+                smallest = bucket;
+            }
+        }
+        return smallest;
+    }
+
+    private enum ActionBar {
+        LINK(Components.LINK_INSTRUCTION),
+        UNLINK(Components.UNLINK_INSTRUCTION);
+
+        private final ClientboundSetActionBarTextPacket packet;
+
+        ActionBar(Component component) {
+            this.packet = new ClientboundSetActionBarTextPacket(PaperAdventure.asVanilla(component));
+        }
+    }
+
+    private static final class Viewer {
+        private final Player player;
+        private @Nullable ActionBar lastSent;
+        private int lastSentTick;
+
+        private Viewer(Player player) {
+            this.player = player;
+        }
+    }
+}
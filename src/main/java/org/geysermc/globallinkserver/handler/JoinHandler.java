@@ -6,26 +6,34 @@
 package org.geysermc.globallinkserver.handler;
 
 import java.util.UUID;
-import org.bukkit.Bukkit;
+import org.bukkit.craftbukkit.entity.CraftPlayer;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
-import org.bukkit.plugin.Plugin;
-import org.geysermc.globallinkserver.Components;
-import org.geysermc.globallinkserver.service.LinkLookupService;
-import org.geysermc.globallinkserver.util.MultiConditionSet;
+import org.geysermc.globallinkserver.GlobalLinkCore;
+import org.geysermc.globallinkserver.platform.PaperPlayer;
+import org.geysermc.globallinkserver.util.IdleTracker;
 import org.jspecify.annotations.NullMarked;
 
 @NullMarked
 public final class JoinHandler implements Listener {
-    private final LinkLookupService linkLookupService;
-    private final MultiConditionSet<UUID> playerIdleTracker;
-    private final Plugin plugin;
+    private final GlobalLinkCore core;
+    private final IdleTracker<UUID> playerIdleTracker;
 
-    public JoinHandler(LinkLookupService linkLookupService, MultiConditionSet<UUID> playerIdleTracker, Plugin plugin) {
-        this.linkLookupService = linkLookupService;
+    public JoinHandler(GlobalLinkCore core, IdleTracker<UUID> playerIdleTracker) {
+        this.core = core;
         this.playerIdleTracker = playerIdleTracker;
-        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        // called on a login thread, the lookup runs while the player is logging in and loading the world, so the link
+        // is usually known by the time the player joins
+        if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            core.linkLookupService().prefetch(event.getUniqueId(), event.getName());
+        }
     }
 
     @EventHandler
@@ -36,19 +44,15 @@ public final class JoinHandler implements Listener {
         player.setPersistent(false);
         player.setAllowFlight(true);
 
-        // Hide all players from each other
-        Bukkit.getOnlinePlayers().forEach(otherPlayer -> {
-            player.hidePlayer(plugin, otherPlayer);
-            otherPlayer.hidePlayer(plugin, player);
-        });
+        // Hide all players from each other. A player that isn't visible by default is never added to the tab list or
+        // entity tracker of other players, so unlike hiding every pair this doesn't depend on the online player count.
+        // The field is set directly since Entity#setVisibleByDefault loops over every online player, and the join event
+        // is called before the player is sent to the other players.
+        ((CraftPlayer) player).getHandle().visibleByDefault = false;
 
         playerIdleTracker.add(player.getUniqueId());
 
-        linkLookupService.lookup(player).whenComplete(($, throwable) -> {
-            if (throwable != null) {
-                player.sendMessage(Components.INFO_UNAVAILABLE);
-                throwable.printStackTrace();
-            }
-        });
+        // the link status is shown in the action bar once the lookup completed
+        core.lookupJoinedPlayer(new PaperPlayer(player), link -> {});
     }
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.handler;
+
+import java.util.UUID;
+import org.bukkit.GameRule;
+import org.bukkit.Location;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerAnimationEvent;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.plugin.Plugin;
+import org.geysermc.globallinkserver.config.Config;
+import org.geysermc.globallinkserver.util.IdleTracker;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Keeps only the spawn chunk loaded and freezes every player in place. Since players can't move, running a command or
+ * interacting is what counts as activity, instead of moving like {@link MoveInactivityHandler} does.
+ * <p>
+ * Freezing only takes away the speed of a player, it doesn't stop the server from handling movement packets. A player
+ * that looks around still sends them, and so does a modified client that ignores its speed. Those packets are left
+ * alone on purpose: cancelling them would need a move listener, and with one Paper creates a move event for every
+ * movement packet of every player.
+ */
+@NullMarked
+public final class LeanModeHandler implements Listener {
+    private final Plugin plugin;
+    private final Config.LeanMode leanMode;
+    private final Location spawn;
+    private final IdleTracker<UUID> playerIdleTracker;
+
+    public LeanModeHandler(
+            Plugin plugin, Config.LeanMode leanMode, Location spawn, IdleTracker<UUID> playerIdleTracker) {
+        this.plugin = plugin;
+        this.leanMode = leanMode;
+        this.spawn = spawn;
+        this.playerIdleTracker = playerIdleTracker;
+    }
+
+    /**
+     * Unloads every chunk besides the one the players spawn in. Should be called once the spawn world is loaded.
+     */
+    public void applyToWorld() {
+        var world = spawn.getWorld();
+        // by default a square of chunks around the world spawn stays loaded and ticking, the players only need one
+        world.setGameRule(GameRule.SPAWN_CHUNK_RADIUS, 0);
+        world.addPluginChunkTicket(spawn.getBlockX() >> 4, spawn.getBlockZ() >> 4, plugin);
+
+        world.setViewDistance(leanMode.viewDistance());
+        world.setSendViewDistance(leanMode.viewDistance());
+        world.setSimulationDistance(leanMode.simulationDistance());
+    }
+
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        var player = event.getPlayer();
+        player.setViewDistance(leanMode.viewDistance());
+        player.setSendViewDistance(leanMode.viewDistance());
+        player.setSimulationDistance(leanMode.simulationDistance());
+
+        // a player that doesn't move only sends a movement packet when looking around, or once a second. The server
+        // still handles those packets
+        player.setWalkSpeed(0);
+        player.setFlySpeed(0);
+        //noinspection DataFlowIssue we know it can't be null
+        player.getAttribute(Attribute.JUMP_STRENGTH).setBaseValue(0);
+    }
+
+    @EventHandler
+    public void onCommand(PlayerCommandPreprocessEvent event) {
+        playerIdleTracker.touch(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler
+    public void onInteract(PlayerInteractEvent event) {
+        playerIdleTracker.touch(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler
+    public void onAnimation(PlayerAnimationEvent event) {
+        playerIdleTracker.touch(event.getPlayer().getUniqueId());
+    }
+}
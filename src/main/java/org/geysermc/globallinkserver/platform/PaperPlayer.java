@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.platform;
+
+import java.net.InetAddress;
+import java.util.UUID;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.audience.ForwardingAudience;
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+@NullMarked
+public record PaperPlayer(Player player) implements PlatformPlayer, ForwardingAudience.Single {
+    public static @Nullable PaperPlayer of(@Nullable Player player) {
+        return player != null ? new PaperPlayer(player) : null;
+    }
+
+    @Override
+    public UUID uniqueId() {
+        return player.getUniqueId();
+    }
+
+    @Override
+    public String name() {
+        return player.getName();
+    }
+
+    @Override
+    public @Nullable InetAddress address() {
+        var address = player.getAddress();
+        return address != null ? address.getAddress() : null;
+    }
+
+    @Override
+    public void kick(Component reason) {
+        player.kick(reason);
+    }
+
+    @Override
+    public Audience audience() {
+        return player;
+    }
+}
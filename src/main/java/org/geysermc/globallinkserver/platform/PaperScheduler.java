@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.platform;
+
+import java.util.concurrent.TimeUnit;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.jspecify.annotations.NullMarked;
+
+@NullMarked
+public record PaperScheduler(Plugin plugin) implements PlatformScheduler {
+    private static final long MILLIS_PER_TICK = 50;
+
+    @Override
+    public void repeat(Runnable task, long delay, long period, TimeUnit unit) {
+        Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, task, ticks(delay, unit), ticks(period, unit));
+    }
+
+    @Override
+    public void repeatAsync(Runnable task, long delay, long period, TimeUnit unit) {
+        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, task, ticks(delay, unit), ticks(period, unit));
+    }
+
+    private static long ticks(long duration, TimeUnit unit) {
+        return unit.toMillis(duration) / MILLIS_PER_TICK;
+    }
+}
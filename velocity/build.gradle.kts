@@ -0,0 +1,45 @@
+plugins {
+    java
+    // applied with their versions by the root project
+    id("net.kyori.indra")
+    id("net.kyori.indra.licenser.spotless")
+}
+
+group = "org.geysermc.globallinkserver"
+
+indra {
+    mitLicense()
+
+    javaVersions {
+        target(21)
+    }
+
+    spotless {
+        java {
+            formatAnnotations()
+        }
+        ratchetFrom("origin/master")
+    }
+}
+
+// the header is shared with the root project
+indraSpotlessLicenser {
+    licenseHeaderFile(rootProject.file("license_header.txt"))
+}
+
+dependencies {
+    implementation(project(":core"))
+
+    compileOnly(libs.velocity.api)
+    annotationProcessor(libs.velocity.api)
+    compileOnly(libs.floodgate.api)
+}
+
+tasks.jar {
+    duplicatesStrategy = DuplicatesStrategy.EXCLUDE
+    from(configurations.runtimeClasspath.get().map { if (it.isDirectory) it else zipTree(it) })
+
+    archiveBaseName = "GlobalLinkVelocity"
+    archiveVersion = ""
+    archiveClassifier = ""
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.velocity;
+
+import java.util.List;
+import org.geysermc.globallinkserver.config.ConfigSection;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.serialize.SerializationException;
+
+/**
+ * Reads the config with Configurate, which Velocity ships with.
+ */
+@NullMarked
+public record ConfigurateSection(ConfigurationNode node) implements ConfigSection {
+    @Override
+    public @Nullable ConfigSection section(String key) {
+        var child = node.node(key);
+        return child.isMap() ? new ConfigurateSection(child) : null;
+    }
+
+    @Override
+    public @Nullable String getString(String key) {
+        return node.node(key).getString();
+    }
+
+    @Override
+    public String getString(String key, String def) {
+        return node.node(key).getString(def);
+    }
+
+    @Override
+    public int getInt(String key, int def) {
+        return node.node(key).getInt(def);
+    }
+
+    @Override
+    public long getLong(String key, long def) {
+        return node.node(key).getLong(def);
+    }
+
+    @Override
+    public double getDouble(String key, double def) {
+        return node.node(key).getDouble(def);
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean def) {
+        return node.node(key).getBoolean(def);
+    }
+
+    @Override
+    public List<String> getStringList(String key) {
+        try {
+            return node.node(key).getList(String.class, List.of());
+        } catch (SerializationException exception) {
+            throw new IllegalArgumentException("%s is not a list of strings".formatted(key), exception);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.velocity;
+
+import com.google.inject.Inject;
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.velocitypowered.api.command.BrigadierCommand;
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.connection.PostLoginEvent;
+import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
+import com.velocitypowered.api.plugin.Dependency;
+import com.velocitypowered.api.plugin.Plugin;
+import com.velocitypowered.api.plugin.annotation.DataDirectory;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import org.geysermc.floodgate.api.FloodgateApi;
+import org.geysermc.globallinkserver.Components;
+import org.geysermc.globallinkserver.GlobalLinkCore;
+import org.geysermc.globallinkserver.config.ConfigReader;
+import org.geysermc.globallinkserver.platform.PlatformPlayer;
+import org.spongepowered.configurate.ConfigurateException;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.yaml.YamlConfigurationLoader;
+
+/**
+ * Runs the link server on a Velocity proxy. Velocity can't hold players on its own, so the proxy needs a limbo server
+ * (e.g. NanoLimbo) as its only server. Players are never sent anywhere else, the proxy handles the link commands.
+ * <p>
+ * Unlike the Paper plugin idle players aren't kicked and the link status isn't shown in the action bar, the player
+ * gets the instructions in the chat when joining instead.
+ */
+@Plugin(
+        id = "globallinkserver",
+        name = "GlobalLinkServer",
+        version = "1.0",
+        description = "GlobalLinkServer plugin",
+        authors = "GeyserMC",
+        dependencies = @Dependency(id = "floodgate"))
+public final class GlobalLinkVelocity {
+    private final Logger logger = Logger.getLogger("GlobalLinkServer");
+    private final ProxyServer proxy;
+    private final Path dataDirectory;
+
+    // Velocity handles events and commands on many threads, everything that a Paper server does on its main thread is
+    // done on this one
+    private final ExecutorService mainThread =
+            Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "GlobalLinkServer main thread"));
+
+    private GlobalLinkCore core;
+
+    @Inject
+    public GlobalLinkVelocity(ProxyServer proxy, @DataDirectory Path dataDirectory) {
+        this.proxy = proxy;
+        this.dataDirectory = dataDirectory;
+    }
+
+    @Subscribe
+    public void onProxyInitialize(ProxyInitializeEvent event) {
+        var config = ConfigReader.readConfig(new ConfigurateSection(loadConfig()));
+
+        core = new GlobalLinkCore(
+                config,
+                logger,
+                FloodgateApi.getInstance(),
+                uuid -> proxy.getPlayer(uuid).map(VelocityPlayer::new).orElse(null),
+                mainThread);
+        core.scheduleTasks(new VelocityScheduler(this, proxy, mainThread));
+
+        registerCommands();
+
+        logger.info("Started Global Linking plugin!");
+    }
+
+    @Subscribe
+    public void onProxyShutdown(ProxyShutdownEvent event) {
+        if (core != null) {
+            core.shutdown();
+        }
+        mainThread.shutdown();
+    }
+
+    @Subscribe
+    public void onPostLogin(PostLoginEvent event) {
+        var player = new VelocityPlayer(event.getPlayer());
+
+        mainThread.execute(() -> core.lookupJoinedPlayer(
+                player,
+                link -> player.sendMessage(
+                        link != null ? Components.UNLINK_INSTRUCTION : Components.LINK_INSTRUCTION)));
+    }
+
+    @Subscribe
+    public void onDisconnect(DisconnectEvent event) {
+        var uuid = event.getPlayer().getUniqueId();
+        mainThread.execute(() -> core.playerLeft(uuid));
+    }
+
+    private void registerCommands() {
+        var commandHandler = core.commandHandler();
+
+        register(
+                BrigadierCommand.literalArgumentBuilder("link")
+                        .requires(source -> source instanceof Player)
+                        .executes(ctx -> runCommand(ctx, commandHandler::startLink))
+                        .then(BrigadierCommand.requiredArgumentBuilder("code", IntegerArgumentType.integer(0, 9999))
+                                .executes(ctx -> {
+                                    int code = IntegerArgumentType.getInteger(ctx, "code");
+                                    return runCommand(ctx, player -> commandHandler.linkWithCode(player, code));
+                                })),
+                "linkaccount");
+        register(
+                BrigadierCommand.literalArgumentBuilder("unlink")
+                        .requires(source -> source instanceof Player)
+                        .executes(ctx -> runCommand(ctx, commandHandler::unlink)),
+                "unlinkaccount");
+        register(
+                BrigadierCommand.literalArgumentBuilder("linkinfo")
+                        .requires(source -> source instanceof Player)
+                        .executes(ctx -> runCommand(ctx, core.linkInfoService()::sendCurrentLinkInfo)),
+                "info");
+    }
+
+    private void register(LiteralArgumentBuilder<CommandSource> command, String alias) {
+        var commandManager = proxy.getCommandManager();
+        var brigadierCommand = new BrigadierCommand(command);
+        var meta = commandManager
+                .metaBuilder(brigadierCommand)
+                .aliases(alias)
+                .plugin(this)
+                .build();
+        commandManager.register(meta, brigadierCommand);
+    }
+
+    private int runCommand(CommandContext<CommandSource> ctx, Consumer<PlatformPlayer> command) {
+        var player = new VelocityPlayer((Player) ctx.getSource());
+        mainThread.execute(() -> command.accept(player));
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private ConfigurationNode loadConfig() {
+        var configFile = dataDirectory.resolve("config.yml");
+        try {
+            if (Files.notExists(configFile)) {
+                Files.createDirectories(dataDirectory);
+                try (InputStream defaultConfig = getClass().getResourceAsStream("/config.yml")) {
+                    Files.copy(Objects.requireNonNull(defaultConfig), configFile);
+                }
+            }
+            return YamlConfigurationLoader.builder().path(configFile).build().load();
+        } catch (ConfigurateException exception) {
+            throw new IllegalStateException("Failed to read " + configFile, exception);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to save the default config", exception);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.velocity;
+
+import com.velocitypowered.api.proxy.Player;
+import java.net.InetAddress;
+import java.util.UUID;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.audience.ForwardingAudience;
+import net.kyori.adventure.text.Component;
+import org.geysermc.globallinkserver.platform.PlatformPlayer;
+import org.jspecify.annotations.NullMarked;
+
+@NullMarked
+public record VelocityPlayer(Player player) implements PlatformPlayer, ForwardingAudience.Single {
+    @Override
+    public UUID uniqueId() {
+        return player.getUniqueId();
+    }
+
+    @Override
+    public String name() {
+        return player.getUsername();
+    }
+
+    @Override
+    public InetAddress address() {
+        return player.getRemoteAddress().getAddress();
+    }
+
+    @Override
+    public void kick(Component reason) {
+        player.disconnect(reason);
+    }
+
+    @Override
+    public Audience audience() {
+        return player;
+    }
+}
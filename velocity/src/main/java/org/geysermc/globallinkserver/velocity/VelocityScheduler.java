@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2025 GeyserMC
+ * Licensed under the MIT license
+ * @link https://github.com/GeyserMC/GlobalLinkServer
+ */
+package org.geysermc.globallinkserver.velocity;
+
+import com.velocitypowered.api.proxy.ProxyServer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.geysermc.globallinkserver.platform.PlatformScheduler;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Velocity runs its tasks on a thread pool, the tasks that belong on the main thread are handed over to it.
+ */
+@NullMarked
+public record VelocityScheduler(Object plugin, ProxyServer proxy, Executor mainThread) implements PlatformScheduler {
+    @Override
+    public void repeat(Runnable task, long delay, long period, TimeUnit unit) {
+        repeatAsync(() -> mainThread.execute(task), delay, period, unit);
+    }
+
+    @Override
+    public void repeatAsync(Runnable task, long delay, long period, TimeUnit unit) {
+        proxy.getScheduler()
+                .buildTask(plugin, task)
+                .delay(delay, unit)
+                .repeat(period, unit)
+                .schedule();
+    }
+}